@@ -0,0 +1,90 @@
+#!/usr/bin/env bash
+# Saturates the list endpoints and checks that point reads stay fast. Starts
+# the built jar, seeds a catalog with the load test, and measures the p99 of
+# GET /products/{id} at a steady rate twice: on an idle backend, then while
+# closed-loop users flood GET /products?name=... (a scan of the catalog).
+# Arguments are passed to the backend, e.g. --inventory.admission.enabled=false
+# to see the same run without admission control.
+#
+# Usage (from backend/):
+#   mvn package -DskipTests && scripts/overload-check.sh [backend args...]
+#
+# Exits 0 when the loaded p99 stays within MAX_P99_RATIO of the idle one, 1 otherwise.
+set -euo pipefail
+
+PORT="${PORT:-9294}"
+PRODUCTS="${PRODUCTS:-20000}"
+LIST_USERS="${LIST_USERS:-256}"
+PROBE_RATE="${PROBE_RATE:-100}"
+PROBE_DURATION="${PROBE_DURATION:-15s}"
+MAX_P99_RATIO="${MAX_P99_RATIO:-2}"
+JAR_NAME="backend-0.0.1-SNAPSHOT.jar"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-60}"
+
+if [[ ! -f "target/${JAR_NAME}" ]]; then
+    echo "Missing target/${JAR_NAME}, build it first (see usage)" >&2
+    exit 2
+fi
+
+(cd ../loadtest && mvn -q compile dependency:build-classpath -Dmdep.includeScope=runtime \
+    -Dmdep.outputFile=target/classpath.txt)
+LOADTEST_CLASSPATH="$(cat ../loadtest/target/classpath.txt):$(cd ../loadtest/target/classes && pwd)"
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "${pid}" 2>/dev/null || true
+        wait "${pid}" 2>/dev/null || true
+    done
+}
+trap cleanup EXIT
+
+BASE_URL="http://localhost:${PORT}"
+loadtest() {
+    java -cp "${LOADTEST_CLASSPATH}" com.inventory.loadtest.LoadTest --baseUrl="${BASE_URL}" "$@"
+}
+
+# p99 of GET /products/{id} at PROBE_RATE, in ms
+probe_p99() {
+    local report
+    report=$(loadtest --products=0 --concurrency=16 --warmup=2s --duration="${PROBE_DURATION}" \
+        --mix=pointRead:1 --rate="${PROBE_RATE}" --maxP99Ms=0 --maxErrorRate=0)
+    echo "${report}" | awk '$1 == "get" { print $8 }'
+}
+
+(cd target && exec java -jar "${JAR_NAME}" --server.port="${PORT}" "$@" >/dev/null 2>&1) &
+PIDS+=($!)
+deadline=$(( $(date +%s) + TIMEOUT_SECONDS ))
+until curl -sf "${BASE_URL}/products?size=1" >/dev/null 2>&1; do
+    if (( $(date +%s) > deadline )); then
+        echo "FAIL: backend did not start on port ${PORT}" >&2
+        exit 1
+    fi
+    sleep 0.5
+done
+
+loadtest --products="${PRODUCTS}" --concurrency=16 --warmup=0s --duration=1s --mix=pointRead:1 \
+    --maxP99Ms=0 | grep Seeded
+
+idle=$(probe_p99)
+echo "idle:   GET /products/{id} p99 ${idle} ms"
+
+# Long enough to cover the probe's start, warmup and run
+loadtest --products=0 --concurrency="${LIST_USERS}" --warmup=3s --duration=60s --mix=search:1 \
+    --maxP99Ms=0 --maxErrorRate=0 >/dev/null &
+PIDS+=($!)
+sleep 5
+loaded=$(probe_p99)
+echo "loaded: GET /products/{id} p99 ${loaded} ms with ${LIST_USERS} users flooding list queries"
+echo "admission: $(curl -s "${BASE_URL}/metrics/admission")"
+
+if [[ -z "${idle}" || -z "${loaded}" ]]; then
+    echo "FAIL: the probe recorded no point reads" >&2
+    exit 1
+fi
+if ! awk -v idle="${idle}" -v loaded="${loaded}" -v ratio="${MAX_P99_RATIO}" \
+        'BEGIN { exit !(loaded <= idle * ratio) }'; then
+    echo "FAIL: loaded p99 ${loaded} ms is over ${MAX_P99_RATIO}x the idle ${idle} ms" >&2
+    exit 1
+fi
+echo "Overload check passed"
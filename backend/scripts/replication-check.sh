@@ -0,0 +1,108 @@
+#!/usr/bin/env bash
+# Starts a leader and a follower as two separate processes and checks that a
+# product written to the leader shows up on the follower, that the follower
+# answers batch lookups, and that it rejects writes.
+#
+# Usage (from backend/):
+#   mvn package -DskipTests && scripts/replication-check.sh          # plain jar
+#   mvn -Pcds package -DskipTests && scripts/replication-check.sh cds # AOT + CDS build
+#
+# Exits 0 when every check passed, 1 otherwise.
+set -euo pipefail
+
+MODE="${1:-plain}"
+LEADER_PORT="${LEADER_PORT:-9291}"
+FOLLOWER_PORT="${FOLLOWER_PORT:-9292}"
+REPLICATION_PORT="${REPLICATION_PORT:-9390}"
+JAR_NAME="backend-0.0.1-SNAPSHOT.jar"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-60}"
+
+case "${MODE}" in
+    plain)
+        WORKDIR="target"
+        JAVA_ARGS=(-jar "${JAR_NAME}")
+        ;;
+    cds)
+        WORKDIR="target/application"
+        JAVA_ARGS=(-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "${JAR_NAME}")
+        ;;
+    *)
+        echo "Mode must be plain or cds, got ${MODE}" >&2
+        exit 2
+        ;;
+esac
+
+if [[ ! -f "${WORKDIR}/${JAR_NAME}" ]]; then
+    echo "Missing ${WORKDIR}/${JAR_NAME}, build it first (see usage)" >&2
+    exit 2
+fi
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "${pid}" 2>/dev/null || true
+        wait "${pid}" 2>/dev/null || true
+    done
+}
+trap cleanup EXIT
+
+start() {
+    (cd "${WORKDIR}" && exec java "${JAVA_ARGS[@]}" "$@" >/dev/null 2>&1) &
+    PIDS+=($!)
+}
+
+# Polls until the command succeeds or the timeout passes
+await() {
+    local description="$1"
+    shift
+    local deadline=$(( $(date +%s) + TIMEOUT_SECONDS ))
+    until "$@" >/dev/null 2>&1; do
+        if (( $(date +%s) > deadline )); then
+            echo "FAIL: ${description}" >&2
+            exit 1
+        fi
+        sleep 0.2
+    done
+    echo "ok: ${description}"
+}
+
+expect_status() {
+    local expected="$1" description="$2"
+    shift 2
+    local status
+    status=$(curl -s -o /dev/null -w '%{http_code}' "$@")
+    if [[ "${status}" != "${expected}" ]]; then
+        echo "FAIL: ${description}: expected ${expected}, got ${status}" >&2
+        exit 1
+    fi
+    echo "ok: ${description}"
+}
+
+LEADER="http://localhost:${LEADER_PORT}"
+FOLLOWER="http://localhost:${FOLLOWER_PORT}"
+
+start --server.port="${LEADER_PORT}" --inventory.replication.role=leader \
+    --inventory.replication.port="${REPLICATION_PORT}"
+start --server.port="${FOLLOWER_PORT}" --inventory.replication.role=follower \
+    --inventory.replication.leader="localhost:${REPLICATION_PORT}"
+
+await "leader serves GET /products" curl -sf "${LEADER}/products"
+await "follower serves GET /products" curl -sf "${FOLLOWER}/products"
+await "follower reports its role" sh -c "curl -sf '${FOLLOWER}/replication/status' | grep -q '\"role\":\"follower\"'"
+
+id=$(curl -sf -H 'Content-Type: application/json' "${LEADER}/products" \
+    -d '{"name":"Replication Check","category":"Check","unitPrice":1.50,"stock":7}' \
+    | sed -n 's/.*"id":\([0-9]*\).*/\1/p')
+if [[ -z "${id}" ]]; then
+    echo "FAIL: leader did not create the product" >&2
+    exit 1
+fi
+echo "ok: leader created product ${id}"
+
+await "follower serves product ${id}" sh -c "curl -sf '${FOLLOWER}/products/${id}' | grep -q 'Replication Check'"
+expect_status 200 "follower serves POST /products/lookup" -H 'Content-Type: application/json' \
+    "${FOLLOWER}/products/lookup" -d "[${id}]"
+expect_status 405 "follower rejects POST /products" -H 'Content-Type: application/json' "${FOLLOWER}/products" \
+    -d '{"name":"Rejected","category":"Check","unitPrice":1.50,"stock":1}'
+
+echo "Replication check passed (${MODE})"
@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Measures backend time-to-ready: JVM launch until GET /products answers 200.
+#
+# Usage (from backend/):
+#   mvn -Pcds package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# Compares the plain fat jar against the extracted jar with Spring AOT and the
+# AppCDS archive. Set MAX_READY_MS to fail (exit 1) when the median of the
+# CDS run exceeds it, e.g. MAX_READY_MS=1500 scripts/startup-benchmark.sh 10
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-9191}"
+JAR_NAME="backend-0.0.1-SNAPSHOT.jar"
+FAT_JAR="target/${JAR_NAME}"
+APP_DIR="target/application"
+MAX_READY_MS="${MAX_READY_MS:-}"
+
+if [[ ! -f "${FAT_JAR}" || ! -f "${APP_DIR}/application.jsa" ]]; then
+    echo "Missing build output, run: mvn -Pcds package -DskipTests" >&2
+    exit 2
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints the milliseconds from launch until /products is served
+measure() {
+    local workdir="$1"
+    shift
+    local start pid elapsed
+    start=$(now_ms)
+    (cd "${workdir}" && exec java "$@" --server.port="${PORT}" >/dev/null 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:${PORT}/products"; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            echo "Backend exited before becoming ready" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    echo "${elapsed}"
+}
+
+# Prints "min median max" of the runs
+run_mode() {
+    local results=()
+    for ((i = 0; i < RUNS; i++)); do
+        results+=("$(measure "$@")")
+    done
+    printf '%s\n' "${results[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[1], v[int((NR + 1) / 2)], v[NR] }'
+}
+
+read -r plain_min plain_median plain_max < <(run_mode . -jar "${FAT_JAR}")
+read -r cds_min cds_median cds_max < <(run_mode "${APP_DIR}" \
+    -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "${JAR_NAME}")
+
+printf '%-12s %8s %8s %8s\n' "mode" "min ms" "median" "max ms"
+printf '%-12s %8s %8s %8s\n' "fat-jar" "${plain_min}" "${plain_median}" "${plain_max}"
+printf '%-12s %8s %8s %8s\n' "aot+cds" "${cds_min}" "${cds_median}" "${cds_max}"
+
+if [[ -n "${MAX_READY_MS}" && "${cds_median}" -gt "${MAX_READY_MS}" ]]; then
+    echo "Regression: aot+cds median ${cds_median} ms exceeds ${MAX_READY_MS} ms" >&2
+    exit 1
+fi
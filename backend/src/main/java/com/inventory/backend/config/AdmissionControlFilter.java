@@ -0,0 +1,222 @@
+package com.inventory.backend.config;
+
+import com.inventory.backend.model.AdmissionStats;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admission control for the product endpoints. List-style reads (a scan and
+ * sort of the catalog) and everything else under {@code /products} each get
+ * their own {@link AdmissionLimiter}, so a burst of expensive list queries can
+ * only hold the list class's share of the worker threads while point reads
+ * keep theirs. {@code POST /products/lookup} is a point request up to
+ * {@link #LOOKUP_POINT_IDS} IDs and a list request above, as it then reads as
+ * many products as a page. Requests over a class's limit wait in its bounded
+ * queue; a full queue answers 429 at once and a request that waited too long
+ * answers 503, both with {@code Retry-After}. A waiting request holds a worker
+ * thread, so the worker pool is split between the classes (less a few threads
+ * for endpoints outside admission control) and each class admits and queues
+ * only as many requests as its share has threads.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final String PRODUCTS = "/products";
+    private static final String LOOKUP = PRODUCTS + "/lookup";
+    // Lookups of up to this many IDs cost about as much as one point read
+    static final int LOOKUP_POINT_IDS = 16;
+    // Lookup bodies are read this far to count the IDs; a longer one has more than LOOKUP_POINT_IDS anyway
+    private static final int LOOKUP_COUNT_BYTES = 4096;
+    // Worker threads kept free of admission control for the metrics and replication endpoints
+    static final int RESERVED_THREADS = 8;
+
+    enum EndpointClass {
+        LIST, POINT
+    }
+
+    private final boolean enabled;
+    private final AdmissionLimiter listLimiter;
+    private final AdmissionLimiter pointLimiter;
+
+    public AdmissionControlFilter(
+            @Value("${inventory.admission.enabled:true}") boolean enabled,
+            @Value("${inventory.admission.list.initial-limit:8}") int listInitialLimit,
+            @Value("${inventory.admission.list.max-limit:64}") int listMaxLimit,
+            @Value("${inventory.admission.list.latency-floor-ms:25}") long listLatencyFloorMillis,
+            @Value("${inventory.admission.list.queue-size:16}") int listQueueSize,
+            @Value("${inventory.admission.list.queue-timeout-ms:100}") long listQueueTimeoutMillis,
+            @Value("${inventory.admission.point.initial-limit:64}") int pointInitialLimit,
+            @Value("${inventory.admission.point.max-limit:512}") int pointMaxLimit,
+            @Value("${inventory.admission.point.latency-floor-ms:5}") long pointLatencyFloorMillis,
+            @Value("${inventory.admission.point.queue-size:128}") int pointQueueSize,
+            @Value("${inventory.admission.point.queue-timeout-ms:50}") long pointQueueTimeoutMillis,
+            @Value("${server.tomcat.threads.max:200}") int workerThreads) {
+        this.enabled = enabled;
+        // List queries get up to half the pool, point requests the rest
+        int admittedThreads = workerThreads - RESERVED_THREADS;
+        int listThreads = Math.min(listMaxLimit + listQueueSize, admittedThreads / 2);
+        this.listLimiter = new AdmissionLimiter("list", listInitialLimit, 1, listMaxLimit,
+                listLatencyFloorMillis, listQueueSize, listQueueTimeoutMillis, listThreads);
+        this.pointLimiter = new AdmissionLimiter("point", pointInitialLimit, 1, pointMaxLimit,
+                pointLatencyFloorMillis, pointQueueSize, pointQueueTimeoutMillis, admittedThreads - listThreads);
+    }
+
+    public List<AdmissionStats> stats() {
+        return List.of(listLimiter.stats(), pointLimiter.stats());
+    }
+
+    AdmissionLimiter limiter(EndpointClass endpointClass) {
+        return endpointClass == EndpointClass.LIST ? listLimiter : pointLimiter;
+    }
+
+    static EndpointClass classify(String method, String path) {
+        if (!path.equals(PRODUCTS) && !path.startsWith(PRODUCTS + "/")) {
+            return null;
+        }
+        boolean listRead = path.equals(PRODUCTS) || path.equals(PRODUCTS + "/search")
+                || path.equals(PRODUCTS + "/changes");
+        return "GET".equals(method) && listRead ? EndpointClass.LIST : EndpointClass.POINT;
+    }
+
+    static EndpointClass classifyLookup(int ids) {
+        return ids > LOOKUP_POINT_IDS ? EndpointClass.LIST : EndpointClass.POINT;
+    }
+
+    // Numbers in the start of a JSON array of IDs
+    static int countIds(byte[] body, int length) {
+        int ids = 0;
+        for (int i = 0; i < length; i++) {
+            boolean digit = body[i] >= '0' && body[i] <= '9';
+            if (digit && (i == 0 || body[i - 1] < '0' || body[i - 1] > '9')) {
+                ids++;
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || classify(request.getMethod(), pathOf(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(), pathOf(request));
+        if ("POST".equals(request.getMethod()) && LOOKUP.equals(pathOf(request))) {
+            byte[] head = request.getInputStream().readNBytes(LOOKUP_COUNT_BYTES);
+            endpointClass = classifyLookup(head.length == LOOKUP_COUNT_BYTES
+                    ? Integer.MAX_VALUE
+                    : countIds(head, head.length));
+            request = new ReplayedBodyRequest(request, head);
+        }
+        AdmissionLimiter limiter = limiter(endpointClass);
+        AdmissionLimiter.Admission admission;
+        try {
+            admission = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admission = AdmissionLimiter.Admission.TIMED_OUT;
+        }
+        if (admission != AdmissionLimiter.Admission.ADMITTED) {
+            reject(response, admission == AdmissionLimiter.Admission.QUEUE_FULL
+                    ? HttpStatus.TOO_MANY_REQUESTS
+                    : HttpStatus.SERVICE_UNAVAILABLE, limiter.retryAfterSeconds());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getWriter().write("Server busy, retry in " + retryAfterSeconds + "s");
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /** Hands the controller the body bytes read for classification, followed by the rest of the body. */
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream body;
+
+        ReplayedBodyRequest(HttpServletRequest request, byte[] head) throws IOException {
+            super(request);
+            ServletInputStream rest = request.getInputStream();
+            SequenceInputStream stream = new SequenceInputStream(new ByteArrayInputStream(head), rest);
+            body = new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int read = stream.read();
+                    finished = read < 0;
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = stream.read(buffer, offset, length);
+                    finished = read < 0;
+                    return read;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Lookup bodies are read blocking");
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(body, charset));
+        }
+    }
+}
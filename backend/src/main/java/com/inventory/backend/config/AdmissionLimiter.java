@@ -0,0 +1,152 @@
+package com.inventory.backend.config;
+
+import com.inventory.backend.model.AdmissionStats;
+
+/**
+ * Adaptive concurrency limit for one class of endpoints, with a bounded wait
+ * queue in front of it. The limit follows the gradient between the latency
+ * the class has without contention and its latency now. The baseline is the
+ * lowest smoothed latency seen, never below {@code latencyFloorMillis}, and
+ * drifts towards the current latency over about a minute so it follows a
+ * catalog that grows. While the smoothed latency stays within
+ * {@link #LATENCY_TOLERANCE} times the baseline and the limit is in use, every
+ * request raises the limit by {@code 1/limit} (about one per round of
+ * requests). Above that the limit
+ * is multiplied by tolerance * baseline / latency, no less than
+ * {@link #MIN_GRADIENT}, at most once per round so a burst of slow completions
+ * counts as one signal. A query that is slow because the catalog is big thus
+ * leaves the limit alone; only latency that rises with the load cuts it.
+ * Requests over the limit wait in the queue for up to
+ * {@code queueTimeoutMillis}; a full queue rejects at once. A waiting request
+ * holds a worker thread, so the requests in flight and queued together never
+ * exceed {@code maxThreads}, the class's share of the worker pool: the limit
+ * stays below it, and the queue only takes what the limit leaves.
+ */
+final class AdmissionLimiter {
+    // How far the smoothed latency may rise above the baseline before the limit is cut
+    static final double LATENCY_TOLERANCE = 2.0;
+    // Largest cut in one round
+    static final double MIN_GRADIENT = 0.5;
+    // Weight of the latest request in the average latency
+    private static final double LATENCY_SMOOTHING = 0.1;
+    // Time constant of the baseline's drift towards a higher average latency
+    private static final long BASELINE_DRIFT_NANOS = 60_000_000_000L;
+
+    enum Admission {
+        ADMITTED, QUEUE_FULL, TIMED_OUT
+    }
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxThreads;
+    private final long latencyFloorNanos;
+    private final int queueSize;
+    private final long queueTimeoutMillis;
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long lastDecreaseNanos;
+    private double averageLatencyNanos;
+    private double baselineLatencyNanos;
+    private long lastReleaseNanos;
+    private long admitted;
+    private long rejectedQueueFull;
+    private long rejectedTimedOut;
+
+    AdmissionLimiter(String name, int initialLimit, int minLimit, int maxLimit, long latencyFloorMillis,
+            int queueSize, long queueTimeoutMillis, int maxThreads) {
+        if (minLimit <= 0 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Admission limits of " + name + " must satisfy 0 < min <= initial <= max");
+        }
+        if (maxThreads < minLimit) {
+            throw new IllegalArgumentException("Admission class " + name + " gets " + maxThreads
+                    + " worker threads, fewer than its minimum limit " + minLimit);
+        }
+        this.name = name;
+        this.limit = Math.min(initialLimit, maxThreads);
+        this.minLimit = minLimit;
+        this.maxLimit = Math.min(maxLimit, maxThreads);
+        this.maxThreads = maxThreads;
+        this.latencyFloorNanos = latencyFloorMillis * 1_000_000;
+        this.queueSize = queueSize;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    synchronized Admission acquire() throws InterruptedException {
+        if (inFlight < (int) limit) {
+            inFlight++;
+            admitted++;
+            return Admission.ADMITTED;
+        }
+        if (queued >= queueSize || inFlight + queued >= maxThreads) {
+            rejectedQueueFull++;
+            return Admission.QUEUE_FULL;
+        }
+        queued++;
+        try {
+            long deadline = System.currentTimeMillis() + queueTimeoutMillis;
+            while (inFlight >= (int) limit) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    rejectedTimedOut++;
+                    return Admission.TIMED_OUT;
+                }
+                wait(remaining);
+            }
+        } finally {
+            queued--;
+        }
+        inFlight++;
+        admitted++;
+        return Admission.ADMITTED;
+    }
+
+    synchronized void release(long latencyNanos) {
+        boolean limitInUse = inFlight >= (int) limit / 2;
+        inFlight--;
+        long now = System.nanoTime();
+        if (baselineLatencyNanos == 0) {
+            // The first request to finish is all there is to go by
+            averageLatencyNanos = latencyNanos;
+            baselineLatencyNanos = latencyNanos;
+        } else {
+            averageLatencyNanos += LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+            double drift = 1 - Math.exp(-(double) (now - lastReleaseNanos) / BASELINE_DRIFT_NANOS);
+            baselineLatencyNanos = averageLatencyNanos < baselineLatencyNanos
+                    ? averageLatencyNanos
+                    : baselineLatencyNanos + drift * (averageLatencyNanos - baselineLatencyNanos);
+        }
+        lastReleaseNanos = now;
+
+        double gradient = LATENCY_TOLERANCE * Math.max(baselineLatencyNanos, latencyFloorNanos)
+                / averageLatencyNanos;
+        if (gradient < 1) {
+            if (now - lastDecreaseNanos > averageLatencyNanos) {
+                limit = Math.max(minLimit, limit * Math.max(gradient, MIN_GRADIENT));
+                lastDecreaseNanos = now;
+            }
+        } else if (limitInUse) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        if (queued > 0 && inFlight < (int) limit) {
+            notifyAll();
+        }
+    }
+
+    /** Seconds until a rejected request is likely to get in: the queue ahead drained at the current rate. */
+    synchronized long retryAfterSeconds() {
+        double drainNanos = averageLatencyNanos * (queued + 1) / Math.max((int) limit, 1);
+        return Math.max(1, (long) Math.ceil(drainNanos / 1e9));
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized AdmissionStats stats() {
+        return new AdmissionStats(name, (int) limit, inFlight, queued, admitted,
+                rejectedQueueFull, rejectedTimedOut, averageLatencyNanos / 1e6, baselineLatencyNanos / 1e6);
+    }
+}
@@ -0,0 +1,108 @@
+package com.inventory.backend.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductJsonCache;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Writes products from {@link ProductJsonCache} so single responses and list
+ * pages copy each product's pre-serialized UTF-8 bytes into the response instead
+ * of walking the bean again. Only the page envelope is serialized per request.
+ */
+@Configuration
+public class ProductJsonConfig {
+
+    @Bean
+    public Module productJsonCacheModule(ProductJsonCache jsonCache) {
+        SimpleModule module = new SimpleModule("ProductJsonCacheModule");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                    JsonSerializer<?> serializer) {
+                if (beanDesc.getBeanClass() == Product.class) {
+                    return new CachedProductSerializer((JsonSerializer<Product>) serializer, jsonCache);
+                }
+                return serializer;
+            }
+        });
+        return module;
+    }
+
+    static class CachedProductSerializer extends StdSerializer<Product>
+            implements ContextualSerializer, ResolvableSerializer {
+        private final JsonSerializer<Product> delegate;
+        private final ProductJsonCache jsonCache;
+
+        CachedProductSerializer(JsonSerializer<Product> delegate, ProductJsonCache jsonCache) {
+            super(Product.class);
+            this.delegate = delegate;
+            this.jsonCache = jsonCache;
+        }
+
+        @Override
+        public void serialize(Product product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            ObjectCodec codec = gen.getCodec();
+            // Raw JSON only fits textual JSON output, and unsaved products have no version to key on
+            if (!(gen instanceof JsonGeneratorImpl) || codec == null || product.getId() == null
+                    || product.getVersion() == 0) {
+                delegate.serialize(product, gen, provider);
+                return;
+            }
+
+            SerializableString json = jsonCache.get(product);
+            if (json == null) {
+                long version = product.getVersion();
+                Integer stock = product.getStock();
+                StringWriter writer = new StringWriter(256);
+                try (JsonGenerator productGen = codec.getFactory().createGenerator(writer)) {
+                    productGen.setCodec(codec);
+                    delegate.serialize(product, productGen, provider);
+                }
+                json = jsonCache.put(product, version, stock, writer.toString());
+            }
+            gen.writeRawValue(json);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (delegate instanceof ContextualSerializer contextual) {
+                @SuppressWarnings("unchecked")
+                JsonSerializer<Product> contextualDelegate = (JsonSerializer<Product>) contextual
+                        .createContextual(provider, property);
+                return contextualDelegate == delegate ? this
+                        : new CachedProductSerializer(contextualDelegate, jsonCache);
+            }
+            return this;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventory.backend.config;
+
+import com.inventory.backend.replication.ReplicationNode;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Followers only serve reads: their store is overwritten by the leader's log,
+ * so writes are rejected with 405 before reaching a controller. POST
+ * /products/lookup only reads, so it is let through. Until the
+ * follower has loaded a complete snapshot, every request but the replication
+ * status is answered with 503. The role is read at startup rather than by a
+ * condition, see {@link ReplicationConfig}.
+ */
+@Configuration
+public class ReadOnlyReplicaConfig implements WebMvcConfigurer {
+    private final String role;
+    private final ObjectProvider<ReplicationNode> replicationNode;
+
+    public ReadOnlyReplicaConfig(@Value("${inventory.replication.role:standalone}") String role,
+            ObjectProvider<ReplicationNode> replicationNode) {
+        this.role = role;
+        this.replicationNode = replicationNode;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if ("follower".equals(role)) {
+            registry.addInterceptor(new ReadOnlyInterceptor(replicationNode.getObject()));
+        }
+    }
+
+    static class ReadOnlyInterceptor implements HandlerInterceptor {
+        // Fetches many products by ID in one request body, without writing
+        private static final String LOOKUP_PATH = "/products/lookup";
+
+        private final ReplicationNode follower;
+
+        ReadOnlyInterceptor(ReplicationNode follower) {
+            this.follower = follower;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                throws Exception {
+            if (!follower.serving() && !request.getRequestURI().startsWith("/replication/")) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.getWriter().write("Replica is loading a snapshot from the leader");
+                return false;
+            }
+            String method = request.getMethod();
+            if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+                return true;
+            }
+            if ("POST".equals(method) && LOOKUP_PATH.equals(request.getRequestURI())) {
+                return true;
+            }
+            response.setStatus(HttpStatus.METHOD_NOT_ALLOWED.value());
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD, OPTIONS");
+            response.getWriter().write("Read-only replica, send writes to the leader");
+            return false;
+        }
+    }
+}
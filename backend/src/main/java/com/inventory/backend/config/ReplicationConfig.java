@@ -0,0 +1,36 @@
+package com.inventory.backend.config;
+
+import com.inventory.backend.replication.ReplicationFollower;
+import com.inventory.backend.replication.ReplicationLeader;
+import com.inventory.backend.replication.ReplicationNode;
+import com.inventory.backend.repository.ProductRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the replication role when the application starts. A condition on
+ * {@code inventory.replication.role} would be evaluated once by Spring AOT in
+ * the {@code cds} build and fixed there, so the same build could not be started
+ * as leader and as follower.
+ */
+@Configuration
+public class ReplicationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicationNode replicationNode(ProductRepository productRepository,
+            @Value("${inventory.replication.role:standalone}") String role,
+            @Value("${inventory.replication.bind-address:127.0.0.1}") String bindAddress,
+            @Value("${inventory.replication.port:9190}") int port,
+            @Value("${inventory.replication.log-capacity:100000}") int logCapacity,
+            @Value("${inventory.replication.leader:localhost:9190}") String leader) {
+        return switch (role) {
+            case "standalone" -> ReplicationNode.STANDALONE;
+            case "leader" -> new ReplicationLeader(productRepository, bindAddress, port, logCapacity);
+            case "follower" -> new ReplicationFollower(productRepository, leader);
+            default -> throw new IllegalArgumentException(
+                    "Replication role must be standalone, leader or follower, got " + role);
+        };
+    }
+}
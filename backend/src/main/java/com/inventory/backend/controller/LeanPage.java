@@ -0,0 +1,29 @@
+package com.inventory.backend.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.inventory.backend.model.ProductPage;
+
+/**
+ * Minimal page envelope for machine clients ({@code envelope=lean}): the rows,
+ * the total match count and the page to request next, or {@code null} on the
+ * last page, plus facet counts when requested and the snapshot token for the
+ * next pages. Drops the {@code pageable} and
+ * {@code sort} metadata of {@link Page}.
+ */
+public record LeanPage<T>(List<T> content, long total, String nextCursor,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, Map<String, Long>> facets,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long snapshot) {
+
+    public static <T> LeanPage<T> of(Page<T> page) {
+        String nextCursor = page.hasNext() ? String.valueOf(page.getNumber() + 1) : null;
+        ProductPage productPage = page instanceof ProductPage ? (ProductPage) page : null;
+        return new LeanPage<>(page.getContent(), page.getTotalElements(), nextCursor,
+                productPage == null ? null : productPage.getFacets(),
+                productPage == null ? null : productPage.getSnapshot());
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventory.backend.controller;
+
+import com.inventory.backend.config.AdmissionControlFilter;
+import com.inventory.backend.model.AdmissionStats;
+import com.inventory.backend.model.CoalescingStats;
+import com.inventory.backend.service.ProductService;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+    private final ProductService productService;
+    private final AdmissionControlFilter admissionControl;
+
+    public MetricsController(ProductService productService, AdmissionControlFilter admissionControl) {
+        this.productService = productService;
+        this.admissionControl = admissionControl;
+    }
+
+    // GET coalescing rate of identical concurrent list queries /metrics/list-coalescing
+    @GetMapping("/list-coalescing")
+    public ResponseEntity<CoalescingStats> getListCoalescing() {
+        return new ResponseEntity<>(productService.getListCoalescingStats(), HttpStatus.OK);
+    }
+
+    // GET admission control limits, queues and rejections per endpoint class /metrics/admission
+    @GetMapping("/admission")
+    public ResponseEntity<List<AdmissionStats>> getAdmission() {
+        return new ResponseEntity<>(admissionControl.stats(), HttpStatus.OK);
+    }
+}
@@ -1,9 +1,16 @@
 package com.inventory.backend.controller;
 
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductChanges;
+import com.inventory.backend.model.ProductLookup;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.model.Reservation;
+import com.inventory.backend.model.StockAvailability;
+import com.inventory.backend.model.StockHistory;
+import com.inventory.backend.service.ProductQuery;
 import com.inventory.backend.service.ProductService;
+import com.inventory.backend.service.ReservationService;
 
-import jakarta.validation.Valid;
 
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,25 +28,43 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PutMapping;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/products")
 public class ProductController {
     private final ProductService productService;
+    private final ReservationService reservationService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ReservationService reservationService) {
         this.productService = productService;
+        this.reservationService = reservationService;
     }
 
-    // GET all products /products
+    // GET all products /products?name=&category=&inStock=&minPrice=&maxPrice=&expiresBefore=&expiresAfter=&facets=
     @GetMapping
     public ResponseEntity<Page<Product>> getProducts(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) String category,
-            @RequestParam(required = false) Boolean inStock, Pageable pageable) {
-        Page<Product> productsPage = productService.listProducts(name, category, inStock, pageable);
+            ProductQuery query, Pageable pageable) {
+        Page<Product> productsPage = productService.listProducts(query, pageable);
         return new ResponseEntity<>(productsPage, HttpStatus.OK);
     }
 
+    // GET all products with a lean envelope /products?envelope=lean
+    @GetMapping(params = "envelope=lean")
+    public ResponseEntity<LeanPage<Product>> getProductsLean(
+            ProductQuery query, Pageable pageable) {
+        Page<Product> productsPage = productService.listProducts(query, pageable);
+        return new ResponseEntity<>(LeanPage.of(productsPage), HttpStatus.OK);
+    }
+
+    // GET typo-tolerant search /products/search?q=
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSearchResult>> searchProducts(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<ProductSearchResult> results = productService.searchProducts(q, limit);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     // GET product by ID /products/{id}
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Integer id) {
@@ -47,16 +72,37 @@ public class ProductController {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    // GET products changed after a change sequence number /products/changes?since=&limit=
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChanges> getChanges(@RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        return new ResponseEntity<>(productService.getChanges(since, limit), HttpStatus.OK);
+    }
+
+    // POST many products by ID in one call, in request order /products/lookup
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookup> lookupProducts(@RequestBody List<Integer> ids) {
+        return new ResponseEntity<>(productService.lookupProducts(ids), HttpStatus.OK);
+    }
+
+    // GET stock movements and sell-through rate by ID /products/{id}/stock-history?days=
+    @GetMapping("/{id}/stock-history")
+    public ResponseEntity<StockHistory> getStockHistory(@PathVariable Integer id,
+            @RequestParam(defaultValue = "30") int days) {
+        return productService.getStockHistory(id, days).map(history -> new ResponseEntity<>(history, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
     // POST product /products
     @PostMapping
-    public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) {
+    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
         Product createdProduct = productService.createProduct(product);
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
     // PUT product by ID /products/{id}
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(@PathVariable Integer id, @Valid @RequestBody Product productDetails) {
+    public ResponseEntity<Product> updateProduct(@PathVariable Integer id, @RequestBody Product productDetails) {
         Product updatedProduct = productService.updateProduct(id, productDetails);
         return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
     }
@@ -82,6 +128,51 @@ public class ProductController {
         return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
     }
 
+    // POST sell units by ID /products/{id}/decrement?quantity=
+    @PostMapping("/{id}/decrement")
+    public ResponseEntity<Void> decrementStock(@PathVariable Integer id, @RequestParam Integer quantity) {
+        productService.decrementStock(id, quantity);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    // PUT flag product as hot (striped stock counter) by ID /products/{id}/hot?enabled=
+    @PutMapping("/{id}/hot")
+    public ResponseEntity<Void> setHotProduct(@PathVariable Integer id,
+            @RequestParam(defaultValue = "true") boolean enabled) {
+        productService.setHotProduct(id, enabled);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    // GET stock, reserved and available-to-sell units by ID /products/{id}/availability
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<StockAvailability> getAvailability(@PathVariable Integer id) {
+        return reservationService.getAvailability(id)
+                .map(availability -> new ResponseEntity<>(availability, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // POST reserve stock by ID /products/{id}/reservations?quantity=&ttlSeconds=
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<Reservation> reserveStock(@PathVariable Integer id, @RequestParam Integer quantity,
+            @RequestParam(defaultValue = "300") int ttlSeconds) {
+        Reservation reservation = reservationService.reserve(id, quantity, ttlSeconds);
+        return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+    }
+
+    // POST confirm reservation /products/{id}/reservations/{reservationId}/confirm
+    @PostMapping("/{id}/reservations/{reservationId}/confirm")
+    public ResponseEntity<Product> confirmReservation(@PathVariable Integer id, @PathVariable long reservationId) {
+        Product updatedProduct = reservationService.confirm(id, reservationId);
+        return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
+    }
+
+    // DELETE release reservation /products/{id}/reservations/{reservationId}
+    @DeleteMapping("/{id}/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseReservation(@PathVariable Integer id, @PathVariable long reservationId) {
+        reservationService.release(id, reservationId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     // Handle bad requests
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException e) {
@@ -0,0 +1,29 @@
+package com.inventory.backend.controller;
+
+import com.inventory.backend.model.ReplicationStatus;
+import com.inventory.backend.replication.ReplicationNode;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/replication")
+public class ReplicationController {
+    private final ObjectProvider<ReplicationNode> replicationNode;
+
+    public ReplicationController(ObjectProvider<ReplicationNode> replicationNode) {
+        this.replicationNode = replicationNode;
+    }
+
+    // GET role, applied offset and lag of this instance /replication/status
+    @GetMapping("/status")
+    public ResponseEntity<ReplicationStatus> getStatus() {
+        ReplicationNode node = replicationNode.getIfAvailable();
+        ReplicationStatus status = node == null ? ReplicationStatus.standalone() : node.status();
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+}
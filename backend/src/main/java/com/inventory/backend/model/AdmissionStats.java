@@ -0,0 +1,13 @@
+package com.inventory.backend.model;
+
+/**
+ * Admission control of one endpoint class since startup: its current adaptive
+ * concurrency limit, requests running and waiting now, requests admitted, and
+ * requests rejected because the wait queue was full (429) or because they
+ * waited too long (503), with the smoothed request latency and the baseline
+ * latency the limit is measured against.
+ */
+public record AdmissionStats(String endpointClass, int limit, int inFlight, int queued, long admitted,
+        long rejectedQueueFull, long rejectedTimedOut, double averageLatencyMillis,
+        double baselineLatencyMillis) {
+}
@@ -0,0 +1,9 @@
+package com.inventory.backend.model;
+
+/**
+ * Request coalescing of {@code GET /products} since startup: list calls, the
+ * ones answered by joining an identical in-flight query instead of running
+ * their own, their share, and the queries running right now.
+ */
+public record CoalescingStats(long requests, long coalesced, double coalescingRate, int inFlight) {
+}
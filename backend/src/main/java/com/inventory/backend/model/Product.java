@@ -3,12 +3,15 @@ package com.inventory.backend.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
 public class Product {
@@ -35,6 +38,11 @@ public class Product {
 
     private LocalDate updateDate;
 
+    // Store-wide sequence number of the last save, assigned by the repository
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long version;
+
     public Product(String name, String category, BigDecimal unitPrice, LocalDate expirationDate, Integer stock) {
         this.name = name;
         this.category = category;
@@ -0,0 +1,18 @@
+package com.inventory.backend.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Products changed after a sequence number, oldest change first, one entry per
+ * product with its latest state (or {@code deleted} and no product). Pass
+ * {@code next} as {@code since} to continue; {@code hasMore} says whether more
+ * changes are waiting already.
+ */
+public record ProductChanges(List<Change> changes, long next, boolean hasMore) {
+
+    public record Change(long sequence, Integer id, boolean deleted,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Product product) {
+    }
+}
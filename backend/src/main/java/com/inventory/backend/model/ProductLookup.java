@@ -0,0 +1,17 @@
+package com.inventory.backend.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Products looked up by ID, one result per requested ID in request order:
+ * {@code found} with the product, or not found and no product. {@code found}
+ * on the lookup counts the IDs that exist.
+ */
+public record ProductLookup(List<Result> results, int found) {
+
+    public record Result(Integer id, boolean found,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Product product) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.backend.model;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A page of {@code GET /products} results with the facet counts of the whole
+ * match set, keyed by facet name and then by facet value. Serializes like
+ * {@link PageImpl} plus a {@code facets} property when facets were requested
+ * and a {@code plan} property when the query plan was. {@code snapshot} is the
+ * token to pass with the next pages so they read the same version of the store.
+ */
+public class ProductPage extends PageImpl<Product> {
+    private final Map<String, Map<String, Long>> facets;
+    private final QueryPlan plan;
+    private final Long snapshot;
+
+    public ProductPage(List<Product> content, Pageable pageable, long total, Map<String, Map<String, Long>> facets) {
+        this(content, pageable, total, facets, null, null);
+    }
+
+    public ProductPage(List<Product> content, Pageable pageable, long total, Map<String, Map<String, Long>> facets,
+            QueryPlan plan, Long snapshot) {
+        super(content, pageable, total);
+        this.facets = facets;
+        this.plan = plan;
+        this.snapshot = snapshot;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public QueryPlan getPlan() {
+        return plan;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,5 @@
+package com.inventory.backend.model;
+
+// A product matched by GET /products/search and its relevance score
+public record ProductSearchResult(Product product, double score) {
+}
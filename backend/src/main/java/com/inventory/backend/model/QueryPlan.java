@@ -0,0 +1,18 @@
+package com.inventory.backend.model;
+
+import java.util.List;
+
+/**
+ * How {@code GET /products} answered a query, returned with {@code explain=true}
+ * when {@code inventory.query.explain-enabled} is set: the access path that
+ * produced the candidates, the remaining filters in the order they ran with
+ * their estimated selectivity, and how the page was ordered ({@code sort-then-page}
+ * or {@code top-k}, prefixed with {@code id} when no sort was requested and the
+ * page is ordered by product ID).
+ */
+public record QueryPlan(String accessPath, long catalogSize, long estimatedRows, List<Filter> filters,
+        String sort) {
+
+    public record Filter(String field, double estimatedSelectivity) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.inventory.backend.model;
+
+/**
+ * Replication state of this instance. {@code role} is {@code standalone},
+ * {@code leader} or {@code follower}. Offsets are positions in the leader's
+ * mutation log: a follower reports the last one it applied and the last one the
+ * leader announced, {@code lagEntries} is the difference and {@code lagMillis}
+ * how long ago the follower last had applied everything. A leader reports its
+ * connected followers; {@code snapshots} counts snapshots sent (leader) or
+ * loaded (follower).
+ */
+public record ReplicationStatus(String role, boolean connected, long appliedOffset, long leaderOffset,
+        long lagEntries, long lagMillis, int followers, long snapshots) {
+
+    public static ReplicationStatus standalone() {
+        return new ReplicationStatus("standalone", false, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventory.backend.model;
+
+import java.time.Instant;
+
+/**
+ * Stock held for a checkout. Until it is confirmed or released the units count
+ * as reserved; a reservation not confirmed by {@code expiresAt} is released
+ * automatically.
+ */
+public record Reservation(long id, Integer productId, int quantity, Instant expiresAt) {
+}
@@ -0,0 +1,5 @@
+package com.inventory.backend.model;
+
+/** Stock of a product, the units held by open reservations, and what is left to sell. */
+public record StockAvailability(Integer productId, int stock, int reserved, int available) {
+}
@@ -0,0 +1,28 @@
+package com.inventory.backend.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stock movements of one product: the most recent changes one by one, older
+ * ones summed into daily buckets, and the sell-through rate over the requested
+ * window. Deltas are positive for stock received and negative for stock sold
+ * or written off.
+ */
+public record StockHistory(Integer productId, int stock, List<Movement> movements, List<Bucket> buckets,
+        SellThrough sellThrough) {
+
+    public record Movement(Instant timestamp, int delta) {
+    }
+
+    public record Bucket(Instant start, long received, long sold) {
+    }
+
+    /** {@code rate} is {@code sold / (stock at window start + received)}, 0 when nothing was available. */
+    public record SellThrough(int days, long received, long sold, double rate) {
+    }
+
+    public StockHistory withSellThrough(SellThrough sellThrough) {
+        return new StockHistory(productId, stock, movements, buckets, sellThrough);
+    }
+}
@@ -0,0 +1,186 @@
+package com.inventory.backend.replication;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ReplicationStatus;
+import com.inventory.backend.repository.ProductRepository;
+import com.inventory.backend.repository.ProductSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the leader's mutation log to the local store. Runs one connection at
+ * a time on a background thread and reconnects after failures, resuming from
+ * the last applied offset (or reloading a snapshot when the leader no longer
+ * has it). Changes are applied with the leader's versions, so entries that a
+ * snapshot already contains are skipped. A snapshot is received in full before
+ * the store is touched, and the follower does not serve requests until the
+ * first one is loaded or while one replaces the store.
+ */
+public class ReplicationFollower implements ReplicationNode {
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    // Several missed heartbeats mean the leader or the network is gone
+    private static final int READ_TIMEOUT_MILLIS = (int) (10 * ReplicationLeader.HEARTBEAT_MILLIS);
+    private static final long RETRY_MILLIS = 1000;
+
+    private final ProductRepository productRepository;
+    private final String leaderHost;
+    private final int leaderPort;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private Thread worker;
+    // Written by the worker thread only, read by status()
+    private volatile long logId;
+    private volatile long appliedOffset;
+    private volatile long leaderOffset;
+    private volatile long caughtUpAt = System.currentTimeMillis();
+    private volatile long snapshotsLoaded;
+    private volatile boolean serving;
+
+    public ReplicationFollower(ProductRepository productRepository, String leader) {
+        int separator = leader.lastIndexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Replication leader must be host:port, got " + leader);
+        }
+        this.productRepository = productRepository;
+        this.leaderHost = leader.substring(0, separator);
+        this.leaderPort = Integer.parseInt(leader.substring(separator + 1));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::replicate, "replication-follower");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+        worker.interrupt();
+        worker.join();
+    }
+
+    @Override
+    public boolean serving() {
+        return serving;
+    }
+
+    @Override
+    public ReplicationStatus status() {
+        long applied = appliedOffset;
+        long announced = Math.max(leaderOffset, applied);
+        boolean caughtUp = connected && applied == announced;
+        long lagMillis = caughtUp ? 0 : System.currentTimeMillis() - caughtUpAt;
+        return new ReplicationStatus("follower", connected, applied, announced, announced - applied, lagMillis,
+                0, snapshotsLoaded);
+    }
+
+    private void replicate() {
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(leaderHost, leaderPort), CONNECT_TIMEOUT_MILLIS);
+                connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+                connection.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                out.writeInt(ReplicationLeader.MAGIC);
+                out.writeLong(logId);
+                out.writeLong(appliedOffset);
+                out.flush();
+
+                DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(connection.getInputStream(), 1 << 16));
+                connected = true;
+                while (running) {
+                    applyFrame(in);
+                }
+            } catch (IOException e) {
+                // Leader unreachable or gone, retry below
+            } finally {
+                connected = false;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void applyFrame(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case ReplicationLeader.SNAPSHOT -> loadSnapshot(in);
+            case ReplicationLeader.HEARTBEAT -> {
+                leaderOffset = in.readLong();
+                if (appliedOffset >= leaderOffset) {
+                    caughtUpAt = System.currentTimeMillis();
+                }
+            }
+            case ReplicationLog.SAVED, ReplicationLog.DELETED, ReplicationLog.CLEARED -> {
+                long offset = in.readLong();
+                int productId = in.readInt();
+                long version = in.readLong();
+                if (type == ReplicationLog.SAVED) {
+                    productRepository.applyReplicated(readProduct(in, version));
+                } else if (type == ReplicationLog.DELETED) {
+                    productRepository.applyReplicatedDelete(productId, version);
+                } else {
+                    productRepository.clearReplicated(version);
+                }
+                appliedOffset = offset;
+            }
+            default -> throw new IOException("Unknown replication frame type " + type);
+        }
+    }
+
+    private void loadSnapshot(DataInputStream in) throws IOException {
+        long snapshotLogId = in.readLong();
+        long offset = in.readLong();
+        long snapshotVersion = in.readLong();
+        int count = in.readInt();
+        // Decoded before the store changes, so a connection lost midway leaves the previous state intact
+        List<Product> snapshot = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long version = in.readLong();
+            snapshot.add(readProduct(in, version));
+        }
+        serving = false;
+        productRepository.clearReplicated(snapshotVersion);
+        for (Product product : snapshot) {
+            productRepository.applyReplicated(product);
+        }
+        logId = snapshotLogId;
+        appliedOffset = offset;
+        snapshotsLoaded++;
+        serving = true;
+    }
+
+    private static Product readProduct(DataInputStream in, long version) throws IOException {
+        byte[] record = new byte[in.readInt()];
+        in.readFully(record);
+        Product product = ProductSnapshot.decode(record);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,173 @@
+package com.inventory.backend.replication;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ReplicationStatus;
+import com.inventory.backend.repository.ProductRepository;
+import com.inventory.backend.repository.ProductSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the store's mutation log to followers over plain TCP. A follower
+ * connects with the log ID and offset it applied last; if this log still holds
+ * the next entry it resumes from there, otherwise it first gets a snapshot of
+ * all products. After that every change is sent in log order, with a heartbeat
+ * carrying the latest offset after each batch and while idle.
+ * <p>
+ * Wire format (big-endian, {@link DataOutputStream}): the follower sends
+ * {@code MAGIC, logId, appliedOffset}; the leader answers with frames, each a
+ * type byte followed by its fields (see {@link #writeEntry}).
+ * <p>
+ * Followers are not authenticated, so the leader listens on the given bind
+ * address only, loopback unless configured otherwise.
+ */
+public class ReplicationLeader implements ReplicationNode {
+    static final int MAGIC = 0x494E5652; // "INVR"
+    static final byte SNAPSHOT = 'S';
+    static final byte HEARTBEAT = 'H';
+    private static final int BATCH_SIZE = 1024;
+    static final long HEARTBEAT_MILLIS = 500;
+
+    private final ProductRepository productRepository;
+    private final ReplicationLog log;
+    private final String bindAddress;
+    private final int port;
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong snapshotsSent = new AtomicLong();
+    private volatile ServerSocket serverSocket;
+
+    public ReplicationLeader(ProductRepository productRepository, String bindAddress, int port, int logCapacity) {
+        this.productRepository = productRepository;
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.log = new ReplicationLog(logCapacity);
+    }
+
+    @Override
+    public void start() throws IOException {
+        productRepository.addChangeListener(log);
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(bindAddress, port));
+        Thread acceptor = new Thread(this::acceptFollowers, "replication-leader");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Override
+    public void stop() throws IOException {
+        productRepository.removeChangeListener(log);
+        serverSocket.close();
+        for (Socket follower : followers) {
+            follower.close();
+        }
+    }
+
+    // The bound port, e.g. when configured as 0
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public ReplicationStatus status() {
+        long lastOffset = log.lastOffset();
+        return new ReplicationStatus("leader", !serverSocket.isClosed(), lastOffset, lastOffset, 0, 0,
+                followers.size(), snapshotsSent.get());
+    }
+
+    private void acceptFollowers() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                followers.add(socket);
+                Thread sender = new Thread(() -> serve(socket), "replication-leader-" + socket.getPort());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                // Closed by stop()
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            long followerLogId = in.readLong();
+            long next = in.readLong() + 1;
+            if (followerLogId != log.logId() || next < log.firstOffset() || next > log.lastOffset() + 1) {
+                next = sendSnapshot(out) + 1;
+            }
+
+            while (!socket.isClosed()) {
+                List<ReplicationLog.Entry> batch = log.read(next, BATCH_SIZE, HEARTBEAT_MILLIS);
+                if (batch == null) {
+                    // Fell behind the ring; the follower reconnects and gets a snapshot
+                    return;
+                }
+                for (ReplicationLog.Entry entry : batch) {
+                    writeEntry(out, entry);
+                }
+                next += batch.size();
+                out.writeByte(HEARTBEAT);
+                out.writeLong(log.lastOffset());
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Follower disconnected, it resumes from its offset when it reconnects
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(socket);
+        }
+    }
+
+    // SNAPSHOT, logId, offset, version, count, then count times (version, length, product record)
+    private long sendSnapshot(DataOutputStream out) throws IOException {
+        // Changes after this offset are streamed next; those the snapshot already has are skipped by version
+        long offset = log.lastOffset();
+        // The follower's store starts over at this version, so its numbers stay those of this store
+        long snapshotVersion = productRepository.lastVersion();
+        List<Product> products = productRepository.findAll();
+        out.writeByte(SNAPSHOT);
+        out.writeLong(log.logId());
+        out.writeLong(offset);
+        out.writeLong(snapshotVersion);
+        out.writeInt(products.size());
+        for (Product product : products) {
+            long version = product.getVersion();
+            byte[] record = ProductSnapshot.encode(product);
+            out.writeLong(version);
+            out.writeInt(record.length);
+            out.write(record);
+        }
+        snapshotsSent.incrementAndGet();
+        return offset;
+    }
+
+    // type, offset, product ID, version, then for SAVED (length, product record)
+    private static void writeEntry(DataOutputStream out, ReplicationLog.Entry entry) throws IOException {
+        out.writeByte(entry.type());
+        out.writeLong(entry.offset());
+        out.writeInt(entry.productId());
+        out.writeLong(entry.version());
+        if (entry.type() == ReplicationLog.SAVED) {
+            out.writeInt(entry.product().length);
+            out.write(entry.product());
+        }
+    }
+}
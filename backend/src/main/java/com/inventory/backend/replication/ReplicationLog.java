@@ -0,0 +1,93 @@
+package com.inventory.backend.replication;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductChangeListener;
+import com.inventory.backend.repository.ProductSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The leader's ordered mutation log: a bounded ring of the most recent store
+ * changes, each numbered with a gap-free log offset in the order the writers
+ * appended them. Products are encoded when appended, so an entry keeps the
+ * state of the write even though products are updated in place. Followers that
+ * fall further behind than the ring holds catch up from a snapshot instead.
+ */
+final class ReplicationLog implements ProductChangeListener {
+    static final byte SAVED = 'P';
+    static final byte DELETED = 'D';
+    static final byte CLEARED = 'C';
+
+    record Entry(long offset, byte type, int productId, long version, byte[] product) {
+    }
+
+    // Identifies this log instance; offsets of a restarted leader start over
+    private final long logId = ThreadLocalRandom.current().nextLong();
+    private final Entry[] entries;
+    private long nextOffset = 1;
+
+    ReplicationLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Replication log capacity must be positive");
+        }
+        this.entries = new Entry[capacity];
+    }
+
+    long logId() {
+        return logId;
+    }
+
+    @Override
+    public void saved(Product product) {
+        append(SAVED, product.getId(), product.getVersion(), ProductSnapshot.encode(product));
+    }
+
+    @Override
+    public void deleted(Integer id, long version) {
+        append(DELETED, id, version, null);
+    }
+
+    @Override
+    public void cleared(long version) {
+        append(CLEARED, 0, version, null);
+    }
+
+    private synchronized void append(byte type, int productId, long version, byte[] product) {
+        long offset = nextOffset++;
+        entries[(int) (offset % entries.length)] = new Entry(offset, type, productId, version, product);
+        notifyAll();
+    }
+
+    synchronized long lastOffset() {
+        return nextOffset - 1;
+    }
+
+    synchronized long firstOffset() {
+        return Math.max(nextOffset - entries.length, 1);
+    }
+
+    /**
+     * Entries from {@code offset} on, at most {@code limit}, waiting up to
+     * {@code timeoutMillis} for the first one. Returns an empty list on timeout
+     * and null when the entry at {@code offset} was already overwritten.
+     */
+    synchronized List<Entry> read(long offset, int limit, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (offset >= nextOffset && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+        if (offset < firstOffset()) {
+            return null;
+        }
+        int count = (int) Math.min(nextOffset - offset, limit);
+        List<Entry> batch = new ArrayList<>(Math.max(count, 0));
+        for (long next = offset; next < offset + count; next++) {
+            batch.add(entries[(int) (next % entries.length)]);
+        }
+        return batch;
+    }
+}
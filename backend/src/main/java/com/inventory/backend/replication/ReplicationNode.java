@@ -0,0 +1,24 @@
+package com.inventory.backend.replication;
+
+import com.inventory.backend.model.ReplicationStatus;
+
+import java.io.IOException;
+
+/** The leader or follower side of replication, whichever this instance runs. */
+public interface ReplicationNode {
+    /** An instance that neither streams nor applies a mutation log. */
+    ReplicationNode STANDALONE = ReplicationStatus::standalone;
+
+    ReplicationStatus status();
+
+    /** Whether the local store is complete enough to answer requests. */
+    default boolean serving() {
+        return true;
+    }
+
+    default void start() throws IOException {
+    }
+
+    default void stop() throws IOException, InterruptedException {
+    }
+}
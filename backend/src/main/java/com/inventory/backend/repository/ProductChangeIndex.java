@@ -0,0 +1,187 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The latest change of each product, ordered by the repository sequence number
+ * (the product version) of that change, for incremental sync. A product changed
+ * twice only keeps its newer entry, so
+ * reading the changes since a sequence number costs O(changes returned + log n)
+ * whatever the catalog size. Deleted products leave a tombstone, which is
+ * compacted away after {@code tombstoneRetentionMillis}; clients that last
+ * synced before the newest compacted tombstone have to start over, and so do
+ * clients that synced before the store was cleared.
+ * <p>
+ * Writes take their sequence number from {@link #nextSequence} and reach the
+ * index a little later, so they can arrive out of order. Readers only see
+ * changes below the oldest number still on its way, so no write can land behind
+ * a client's position.
+ */
+final class ProductChangeIndex implements ProductChangeListener {
+    static final long DEFAULT_TOMBSTONE_RETENTION_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    record Change(long sequence, Integer productId, boolean deleted, long timestamp) {
+    }
+
+    private final NavigableMap<Long, Change> changes = new TreeMap<>();
+    private final Map<Integer, Long> latest = new HashMap<>();
+    private final NavigableMap<Long, Change> tombstones = new TreeMap<>();
+    // Sequence numbers handed out to writes that have not been indexed yet
+    private final NavigableSet<Long> pending = new TreeSet<>();
+    private final long tombstoneRetentionMillis;
+    private long lastSequence;
+    private long compactedThrough;
+
+    ProductChangeIndex(long tombstoneRetentionMillis) {
+        this.tombstoneRetentionMillis = tombstoneRetentionMillis;
+    }
+
+    /** Takes the next number of {@code sequence} for a write that will be indexed. */
+    synchronized long nextSequence(AtomicLong sequence) {
+        long next = sequence.incrementAndGet();
+        pending.add(next);
+        lastSequence = next;
+        return next;
+    }
+
+    /** Registers a write numbered elsewhere, e.g. by a replication leader, before it is applied. */
+    synchronized void expect(AtomicLong sequence, long version) {
+        sequence.accumulateAndGet(version, Math::max);
+        pending.add(version);
+        lastSequence = Math.max(lastSequence, version);
+    }
+
+    /**
+     * Ends the write numbered {@code sequence} whether or not it got indexed, so
+     * a write that threw does not hide every later change. Called from a finally
+     * block by every write that took or expected a number.
+     */
+    synchronized void release(long sequence) {
+        pending.remove(sequence);
+    }
+
+    /** The highest sequence number up to which every write is complete. */
+    synchronized long settledSequence() {
+        return pending.isEmpty() ? lastSequence : pending.first() - 1;
+    }
+
+    /**
+     * IDs of every product changed after {@code since}, or null while a write
+     * is still on its way (its product is not known yet) or when changes after
+     * {@code since} were compacted.
+     */
+    synchronized List<Integer> changedSince(long since) {
+        if (!pending.isEmpty() || since < compactedThrough) {
+            return null;
+        }
+        NavigableMap<Long, Change> after = changes.tailMap(since, false);
+        List<Integer> ids = new ArrayList<>(after.size());
+        for (Change change : after.values()) {
+            ids.add(change.productId());
+        }
+        return ids;
+    }
+
+    @Override
+    public synchronized void saved(Product product) {
+        pending.remove(product.getVersion());
+        record(product.getId(), false, product.getVersion());
+    }
+
+    @Override
+    public synchronized void deleted(Integer id, long version) {
+        pending.remove(version);
+        Long previous = latest.get(id);
+        if (previous != null && !changes.get(previous).deleted()) {
+            record(id, true, version);
+        }
+    }
+
+    // One sequence number deletes everything, so clients start over instead of paging through tombstones
+    @Override
+    public synchronized void cleared(long version) {
+        pending.remove(version);
+        changes.clear();
+        latest.clear();
+        tombstones.clear();
+        lastSequence = Math.max(lastSequence, version);
+        compactedThrough = version;
+    }
+
+    /** Forgets every change and starts over at {@code version}, e.g. one numbered by another store. */
+    synchronized void reset(long version) {
+        pending.clear();
+        changes.clear();
+        latest.clear();
+        tombstones.clear();
+        lastSequence = version;
+        compactedThrough = version;
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}, or null when the client
+     * has to start over from 0: tombstones after {@code since} were compacted, or
+     * {@code since} is from before a restart.
+     */
+    synchronized List<Change> since(long since, int limit) {
+        compact(System.currentTimeMillis());
+        if (since != 0 && (since < compactedThrough || since > lastSequence)) {
+            return null;
+        }
+        long visibleThrough = settledSequence();
+        List<Change> found = new ArrayList<>(Math.min(limit, 64));
+        if (visibleThrough <= since) {
+            return found;
+        }
+        Iterator<Change> iterator = changes.subMap(since, false, visibleThrough, true).values().iterator();
+        while (iterator.hasNext() && found.size() < limit) {
+            found.add(iterator.next());
+        }
+        return found;
+    }
+
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    synchronized long compactedThrough() {
+        return compactedThrough;
+    }
+
+    private void record(Integer id, boolean deleted, long sequence) {
+        long now = System.currentTimeMillis();
+        lastSequence = Math.max(lastSequence, sequence);
+        Change change = new Change(sequence, id, deleted, now);
+        Long previous = latest.put(id, change.sequence());
+        if (previous != null) {
+            changes.remove(previous);
+            tombstones.remove(previous);
+        }
+        changes.put(change.sequence(), change);
+        if (deleted) {
+            tombstones.put(change.sequence(), change);
+            compact(now);
+        }
+    }
+
+    // Tombstones are recorded in time order, so the expired ones are at the head
+    private void compact(long now) {
+        while (!tombstones.isEmpty() && now - tombstones.firstEntry().getValue().timestamp() > tombstoneRetentionMillis) {
+            Change tombstone = tombstones.pollFirstEntry().getValue();
+            changes.remove(tombstone.sequence());
+            latest.remove(tombstone.productId());
+            compactedThrough = Math.max(compactedThrough, tombstone.sequence());
+        }
+    }
+}
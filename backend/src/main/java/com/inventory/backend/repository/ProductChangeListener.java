@@ -0,0 +1,17 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.Product;
+
+/**
+ * Receives every change to the product store in the writing thread, right after
+ * it is applied. Each change carries the store-wide sequence number it was
+ * assigned, so a consumer can order and deduplicate changes per product.
+ */
+public interface ProductChangeListener {
+    // Product created, updated or restored; its version is the change's sequence number
+    void saved(Product product);
+
+    void deleted(Integer id, long version);
+
+    void cleared(long version);
+}
@@ -0,0 +1,52 @@
+package com.inventory.backend.repository;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.inventory.backend.model.Product;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized JSON of each product, keyed by ID and tagged with the product
+ * version and stock it was rendered from. The repository invalidates entries on
+ * every write, so a hit is always the current representation of the product;
+ * the stock tag keeps read copies of hot products, which carry a newer stock
+ * under the same version, from being answered with the published one.
+ */
+@Component
+public class ProductJsonCache {
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    public SerializableString get(Product product) {
+        Entry entry = entries.get(product.getId());
+        return entry != null && entry.version() == product.getVersion()
+                && Objects.equals(entry.stock(), product.getStock()) ? entry.json() : null;
+    }
+
+    public SerializableString put(Product product, long version, Integer stock, String json) {
+        SerializedString serialized = new SerializedString(json);
+        // Encode once here so every later write copies the cached UTF-8 bytes
+        serialized.asUnquotedUTF8();
+        entries.put(product.getId(), new Entry(version, stock, serialized));
+        return serialized;
+    }
+
+    public void invalidate(Integer id) {
+        entries.remove(id);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(long version, Integer stock, SerializableString json) {
+    }
+}
@@ -1,17 +1,113 @@
 package com.inventory.backend.repository;
 
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductChanges;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.model.StockAvailability;
+import com.inventory.backend.model.StockHistory;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// Products returned by the find methods other than findById are the stored ones and must not be changed
 public interface ProductRepository {
+    // Writes the product's stock as given, whatever was sold or received meanwhile
     Product save(Product product);
 
+    // Saves a product read with readStock units: the same stock keeps the units sold or received since the read,
+    // another stock is written only if the stock is still readStock, IllegalArgumentException otherwise
+    Product save(Product product, int readStock);
+
+    List<Product> saveAll(Collection<Product> products);
+
+    // Loads products with their existing IDs, e.g. from a snapshot; the secondary indexes may be built after it returns
+    void restore(Collection<Product> products);
+
+    // A copy of the product, which the caller may change and save
     Optional<Product> findById(Integer id);
 
+    // Products of the given IDs in request order, null where an ID does not exist
+    List<Product> findAllById(List<Integer> ids);
+
     List<Product> findAll();
 
+    // Range scan over the unit price index, bounds inclusive, null = unbounded
+    List<Product> findByUnitPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+
+    // Range scan over the expiration date index, bounds exclusive, null = unbounded
+    List<Product> findByExpirationDateBetween(LocalDate after, LocalDate before);
+
+    // Products in any of the given categories, exact match
+    List<Product> findByCategoryIn(Collection<String> categories);
+
+    // Products with stock > 0 (true) or stock = 0 (false)
+    List<Product> findByInStock(boolean inStock);
+
+    // Index statistics for query planning, null when not maintained or not built yet
+    ProductStatistics getStatistics();
+
+    // Opens a consistent read view of the store as of now and returns its token, the latest sequence number
+    // whose write is complete
+    long openSnapshot();
+
+    // The latest sequence number assigned to a change
+    long lastVersion();
+
+    // Products as they were when the snapshot was opened, IllegalArgumentException once it expired
+    List<Product> findAllAsOf(long snapshot);
+
+    // Snapshot versions of the given products, read from the live indexes, and of every product changed since;
+    // null when writes in flight keep that set from being exact right now
+    List<Product> findAllAsOf(long snapshot, List<Product> candidates);
+
+    // Latest change of each product changed after the change sequence number, tombstones for deletions
+    ProductChanges findChangesSince(long since, int limit);
+
+    // Recorded stock movements, without the sell-through rate
+    Optional<StockHistory> findStockHistory(Integer id);
+
+    // Holds stock for a reservation if enough is available, false otherwise
+    boolean reserveStock(Integer id, int quantity);
+
+    // Returns held stock to available
+    void releaseStock(Integer id, int quantity);
+
+    // Turns held stock into a sale, decrementing stock and held units together
+    Product confirmStock(Integer id, int quantity);
+
+    Optional<StockAvailability> findStockAvailability(Integer id);
+
+    // Sells units if available, false otherwise
+    boolean decrementStock(Integer id, int quantity);
+
+    // Hot products take decrements on a striped counter instead of the product entry
+    void setHot(Integer id, boolean hot);
+
+    // Applies a product replicated from another store with its version, false when this store has a newer one
+    // or deleted it with a newer version
+    boolean applyReplicated(Product product);
+
+    // Removes a product deleted on another store, false when this store has a newer version of it or none;
+    // the delete's version is kept, so an older save of the product is not applied after it
+    boolean applyReplicatedDelete(Integer id, long version);
+
+    // Empties a replica as of the source store's version, which numbers the changes from here on;
+    // open snapshots and change positions from before are given up
+    void clearReplicated(long version);
+
+    // Notified of every change in the writing thread, e.g. to stream them to replicas
+    void addChangeListener(ProductChangeListener listener);
+
+    void removeChangeListener(ProductChangeListener listener);
+
+    // Typo-tolerant name search, best matches first
+    List<ProductSearchResult> search(String query, int limit);
+
+    long count();
+
     boolean existsById(Integer id);
 
     void deleteById(Integer id);
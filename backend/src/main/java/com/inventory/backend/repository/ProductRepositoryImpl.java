@@ -1,21 +1,75 @@
 package com.inventory.backend.repository;
 
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductChanges;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.model.StockAvailability;
+import com.inventory.backend.model.StockHistory;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class ProductRepositoryImpl implements ProductRepository {
+    static final long DEFAULT_HOT_PUBLISH_INTERVAL_MILLIS = 1_000;
+
     private final Map<Integer, Product> products = new ConcurrentHashMap<>();
     private final AtomicInteger idCounter = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ProductJsonCache jsonCache;
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private final SortedIndex<BigDecimal> unitPriceIndex = new SortedIndex<>();
+    private final SortedIndex<LocalDate> expirationDateIndex = new SortedIndex<>();
+    private final SortedIndex<String> categoryIndex = new SortedIndex<>();
+    private final StockBitmap stockBitmap = new StockBitmap();
+    private final Map<Integer, StockTimeSeries> stockHistories = new ConcurrentHashMap<>();
+    private final StockLedger stockLedger = new StockLedger();
+    private final ProductVersions versions;
+    private final ProductChangeIndex changeIndex;
+    private final List<ProductChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    // Stored products are replaced, never changed, so writes that read and then save a stock lock the ID's stripe
+    private final Object[] stockLocks = new Object[64];
+    // Restores whose secondary indexes are still being built; finders scan the store and statistics are null meanwhile
+    private final AtomicInteger indexBuilds = new AtomicInteger();
+    // Version of the last replicated delete of each ID, so an older save replayed after it is not applied
+    private final Map<Integer, Long> replicatedDeletes = new ConcurrentHashMap<>();
+
+    public ProductRepositoryImpl(ProductJsonCache jsonCache) {
+        this(jsonCache, ProductVersions.DEFAULT_MAX_VERSIONS, ProductVersions.DEFAULT_TTL_MILLIS / 1000,
+                ProductChangeIndex.DEFAULT_TOMBSTONE_RETENTION_MILLIS / 3_600_000);
+    }
+
+    @Autowired
+    public ProductRepositoryImpl(ProductJsonCache jsonCache,
+            @Value("${inventory.snapshots.max-versions:" + ProductVersions.DEFAULT_MAX_VERSIONS + "}") int maxVersions,
+            @Value("${inventory.snapshots.ttl-seconds:" + ProductVersions.DEFAULT_TTL_MILLIS / 1000 + "}") long ttlSeconds,
+            @Value("${inventory.changes.tombstone-retention-hours:"
+                    + ProductChangeIndex.DEFAULT_TOMBSTONE_RETENTION_MILLIS / 3_600_000 + "}") long tombstoneRetentionHours) {
+        this.jsonCache = jsonCache;
+        this.versions = new ProductVersions(maxVersions, ttlSeconds * 1000);
+        this.changeIndex = new ProductChangeIndex(tombstoneRetentionHours * 3_600_000);
+        for (int i = 0; i < stockLocks.length; i++) {
+            stockLocks[i] = new Object();
+        }
+    }
 
     @Override
     public Product save(Product product) {
@@ -24,14 +78,24 @@ public class ProductRepositoryImpl implements ProductRepository {
             product.setId(newId);
             product.setCreationDate(LocalDate.now());
             product.setUpdateDate(LocalDate.now());
-            products.put(newId, product);
+            long version = changeIndex.nextSequence(sequence);
+            try {
+                product.setVersion(version);
+                // The caller keeps its object, so changing it later does not change the stored version
+                Product stored = ProductVersions.copyOf(product);
+                products.put(newId, stored);
+                stockHistories.put(newId, new StockTimeSeries(stockOf(stored)));
+                stockLedger.setStock(newId, stockOf(stored));
+                index(stored);
+                notifySaved(stored);
+            } finally {
+                changeIndex.release(version);
+            }
         } else {
             if (products.containsKey(product.getId())) {
                 Product existingProduct = products.get(product.getId());
-                product.setCreationDate(existingProduct.getCreationDate());
-
-                product.setUpdateDate(LocalDate.now());
-                products.put(product.getId(), product);
+                stockLedger.setStock(product.getId(), stockOf(product));
+                update(product, existingProduct);
             } else {
                 throw new IllegalArgumentException("Product with ID " + product.getId() + " not found");
             }
@@ -39,14 +103,462 @@ public class ProductRepositoryImpl implements ProductRepository {
         return product;
     }
 
+    @Override
+    public Product save(Product product, int readStock) {
+        Product existingProduct = products.get(product.getId());
+        if (existingProduct == null) {
+            throw new IllegalArgumentException("Product with ID " + product.getId() + " not found");
+        }
+        // Cold decrements and confirmations save their stock under the same lock
+        synchronized (lockOf(product.getId())) {
+            int stock = stockOf(product);
+            if (stock == readStock) {
+                // The writer left the stock alone, so units sold or received since its read stay that way
+                long entry = stockLedger.get(product.getId());
+                if (entry >= 0) {
+                    product.setStock(StockLedger.stock(entry));
+                }
+            } else if (!stockLedger.compareAndSetStock(product.getId(), readStock, stock)) {
+                throw new IllegalArgumentException("Stock of product with ID " + product.getId()
+                        + " changed since it was read, read it again");
+            }
+            update(product, existingProduct);
+        }
+        return product;
+    }
+
+    // Replaces a stored product whose stock is already in the ledger with a copy of the given one
+    private void update(Product product, Product existingProduct) {
+        product.setCreationDate(existingProduct.getCreationDate());
+
+        product.setUpdateDate(LocalDate.now());
+        long version = changeIndex.nextSequence(sequence);
+        try {
+            product.setVersion(version);
+            Product stored = ProductVersions.copyOf(product);
+            products.put(stored.getId(), stored);
+            jsonCache.invalidate(stored.getId());
+            recordStock(stored);
+            index(stored);
+            notifySaved(stored);
+        } finally {
+            changeIndex.release(version);
+        }
+    }
+
+    @Override
+    public List<Product> saveAll(Collection<Product> products) {
+        List<Product> savedProducts = new ArrayList<>(products.size());
+        for (Product product : products) {
+            savedProducts.add(save(product));
+        }
+        return savedProducts;
+    }
+
+    /**
+     * Stores the products and returns; the search, sorted and stock indexes are
+     * built on a background thread. Until they are, the index finders scan the
+     * store, {@link #getStatistics} is null and {@link #search} waits.
+     */
+    @Override
+    public void restore(Collection<Product> restoredProducts) {
+        // Before any restored product is visible, so no finder trusts an index that misses it
+        indexBuilds.incrementAndGet();
+        List<Integer> ids = new ArrayList<>(restoredProducts.size());
+        int maxId = 0;
+        try {
+            for (Product product : restoredProducts) {
+                long version = changeIndex.nextSequence(sequence);
+                try {
+                    product.setVersion(version);
+                    jsonCache.invalidate(product.getId());
+                    products.put(product.getId(), product);
+                    stockHistories.put(product.getId(), new StockTimeSeries(stockOf(product)));
+                    stockLedger.setStock(product.getId(), stockOf(product));
+                    notifySaved(product);
+                } finally {
+                    changeIndex.release(version);
+                }
+                ids.add(product.getId());
+                maxId = Math.max(maxId, product.getId());
+            }
+            idCounter.accumulateAndGet(maxId, Math::max);
+        } finally {
+            Thread builder = new Thread(() -> buildIndexes(ids), "index-builder");
+            builder.setDaemon(true);
+            builder.start();
+        }
+    }
+
+    private void buildIndexes(List<Integer> ids) {
+        try {
+            for (Integer id : ids) {
+                // Writes meanwhile index their own product: index until the stored product stays the same
+                Product product = products.get(id);
+                while (true) {
+                    if (product == null) {
+                        unindex(id);
+                    } else {
+                        index(product);
+                    }
+                    Product current = products.get(id);
+                    if (current == product) {
+                        break;
+                    }
+                    product = current;
+                }
+            }
+        } finally {
+            synchronized (indexBuilds) {
+                indexBuilds.decrementAndGet();
+                indexBuilds.notifyAll();
+            }
+        }
+    }
+
+    private boolean indexesBuilt() {
+        return indexBuilds.get() == 0;
+    }
+
+    /** Waits until the indexes of every restore are built. */
+    public void awaitIndexes() throws InterruptedException {
+        synchronized (indexBuilds) {
+            while (indexBuilds.get() > 0) {
+                indexBuilds.wait();
+            }
+        }
+    }
+
+    @Override
+    public boolean applyReplicated(Product product) {
+        Product existingProduct = products.get(product.getId());
+        if (existingProduct != null && existingProduct.getVersion() >= product.getVersion()) {
+            return false;
+        }
+        Long deletedVersion = replicatedDeletes.get(product.getId());
+        if (deletedVersion != null) {
+            if (deletedVersion >= product.getVersion()) {
+                return false;
+            }
+            replicatedDeletes.remove(product.getId());
+        }
+        // Versions stay those of the source store, so a replayed or reordered change is recognized as stale
+        changeIndex.expect(sequence, product.getVersion());
+        try {
+            products.put(product.getId(), product);
+            jsonCache.invalidate(product.getId());
+            if (existingProduct == null) {
+                stockHistories.put(product.getId(), new StockTimeSeries(stockOf(product)));
+            } else {
+                recordStock(product);
+            }
+            stockLedger.setStock(product.getId(), stockOf(product));
+            index(product);
+            idCounter.accumulateAndGet(product.getId(), Math::max);
+            notifySaved(product);
+        } finally {
+            changeIndex.release(product.getVersion());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean applyReplicatedDelete(Integer id, long version) {
+        Product existingProduct = products.get(id);
+        if (existingProduct != null && existingProduct.getVersion() > version) {
+            return false;
+        }
+        // Kept even when the product is not here (yet), in case its save arrives after the delete
+        replicatedDeletes.merge(id, version, Math::max);
+        if (existingProduct == null) {
+            return false;
+        }
+        changeIndex.expect(sequence, version);
+        try {
+            removeProduct(id);
+            notifyDeleted(id, version);
+        } finally {
+            changeIndex.release(version);
+        }
+        return true;
+    }
+
+    @Override
+    public void addChangeListener(ProductChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ProductChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
     @Override
     public Optional<Product> findById(Integer id) {
-        return Optional.ofNullable(products.get(id));
+        Product product = products.get(id);
+        if (product == null) {
+            return Optional.empty();
+        }
+        // A copy, which the caller may change and save without touching the stored version
+        Product live = withLiveStock(product);
+        return Optional.of(live == product ? ProductVersions.copyOf(product) : live);
+    }
+
+    @Override
+    public List<Product> findAllById(List<Integer> ids) {
+        List<Product> found = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Product product = products.get(id);
+            found.add(product == null ? null : withLiveStock(product));
+        }
+        return found;
     }
 
     @Override
     public List<Product> findAll() {
-        return new ArrayList<>(products.values());
+        List<Product> found = new ArrayList<>(products.values());
+        if (stockLedger.hasHot()) {
+            found.replaceAll(this::withLiveStock);
+        }
+        return found;
+    }
+
+    @Override
+    public List<Product> findByUnitPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!indexesBuilt()) {
+            return scan(product -> product.getUnitPrice() != null
+                    && (minPrice == null || product.getUnitPrice().compareTo(minPrice) >= 0)
+                    && (maxPrice == null || product.getUnitPrice().compareTo(maxPrice) <= 0));
+        }
+        return productsOf(unitPriceIndex.range(minPrice, true, maxPrice, true));
+    }
+
+    @Override
+    public List<Product> findByExpirationDateBetween(LocalDate after, LocalDate before) {
+        if (!indexesBuilt()) {
+            return scan(product -> product.getExpirationDate() != null
+                    && (after == null || product.getExpirationDate().isAfter(after))
+                    && (before == null || product.getExpirationDate().isBefore(before)));
+        }
+        return productsOf(expirationDateIndex.range(after, false, before, false));
+    }
+
+    @Override
+    public List<Product> findByCategoryIn(Collection<String> categories) {
+        if (!indexesBuilt()) {
+            return scan(product -> categories.contains(product.getCategory()));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (String category : categories) {
+            ids.addAll(categoryIndex.get(category));
+        }
+        return productsOf(ids);
+    }
+
+    @Override
+    public List<Product> findByInStock(boolean inStock) {
+        if (!indexesBuilt()) {
+            return scan(product -> stockOf(product) > 0 == inStock);
+        }
+        int[] ids = stockBitmap.ids(inStock);
+        List<Product> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Product product = products.get(id);
+            if (product == null) {
+                continue;
+            }
+            product = withLiveStock(product);
+            // Hot sales only reach the bitmap when published, so a product may have sold out since
+            if (!inStock || stockOf(product) > 0) {
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public ProductStatistics getStatistics() {
+        if (!indexesBuilt()) {
+            return null;
+        }
+        return new ProductStatistics(products.size(), categoryIndex.keyCounts(),
+                stockBitmap.count(true), stockBitmap.count(false),
+                keyRange(unitPriceIndex, BigDecimal::doubleValue),
+                keyRange(expirationDateIndex, LocalDate::toEpochDay));
+    }
+
+    @Override
+    public long openSnapshot() {
+        // Writes still in flight are left out, so every write up to the token is in the indexes already
+        return versions.open(changeIndex::settledSequence);
+    }
+
+    @Override
+    public long lastVersion() {
+        return sequence.get();
+    }
+
+    @Override
+    public List<Product> findAllAsOf(long snapshot) {
+        List<Product> snapshotProducts = versions.read(snapshot);
+        if (snapshotProducts == null) {
+            throw new IllegalArgumentException("Snapshot " + snapshot + " expired, start again from the first page");
+        }
+        return snapshotProducts;
+    }
+
+    @Override
+    public List<Product> findAllAsOf(long snapshot, List<Product> candidates) {
+        // Asked after the candidates were read, so every write that could have moved a product in or out is listed
+        List<Integer> changed = changeIndex.changedSince(snapshot);
+        if (changed == null) {
+            return null;
+        }
+        Set<Integer> ids = new HashSet<>(candidates.size() + changed.size());
+        for (Product product : candidates) {
+            ids.add(product.getId());
+        }
+        ids.addAll(changed);
+        List<Product> snapshotProducts = versions.read(snapshot, ids);
+        if (snapshotProducts == null) {
+            throw new IllegalArgumentException("Snapshot " + snapshot + " expired, start again from the first page");
+        }
+        return snapshotProducts;
+    }
+
+    @Override
+    public ProductChanges findChangesSince(long since, int limit) {
+        // Hot products only record their stock moves when publishHotStocks runs
+        List<ProductChangeIndex.Change> indexed = changeIndex.since(since, limit + 1);
+        if (indexed == null) {
+            throw new IllegalArgumentException("Changes since " + since
+                    + " are no longer available, sync again from since=0");
+        }
+        boolean hasMore = indexed.size() > limit;
+        List<ProductChanges.Change> changes = new ArrayList<>(Math.min(indexed.size(), limit));
+        for (ProductChangeIndex.Change change : indexed.subList(0, Math.min(indexed.size(), limit))) {
+            // Products are read at their current state, which may be newer than the change; deletes in flight show as such
+            Product product = change.deleted() ? null : products.get(change.productId());
+            if (product != null) {
+                product = withLiveStock(product);
+            }
+            changes.add(new ProductChanges.Change(change.sequence(), change.productId(), product == null, product));
+        }
+        long next = changes.isEmpty() ? Math.max(since, 0) : changes.get(changes.size() - 1).sequence();
+        return new ProductChanges(changes, next, hasMore);
+    }
+
+    // Old product versions kept for open snapshots
+    int retainedVersions() {
+        return versions.retainedVersions();
+    }
+
+    @Override
+    public Optional<StockHistory> findStockHistory(Integer id) {
+        StockTimeSeries series = stockHistories.get(id);
+        return series == null ? Optional.empty() : Optional.of(series.toHistory(id));
+    }
+
+    @Override
+    public boolean reserveStock(Integer id, int quantity) {
+        return stockLedger.reserve(id, quantity);
+    }
+
+    @Override
+    public void releaseStock(Integer id, int quantity) {
+        stockLedger.release(id, quantity);
+    }
+
+    @Override
+    public Product confirmStock(Integer id, int quantity) {
+        Product product = products.get(id);
+        if (product == null) {
+            throw new IllegalArgumentException("Product with ID " + id + " not found");
+        }
+        // Serializes confirmations of one product so the saved stock follows the ledger
+        synchronized (lockOf(id)) {
+            int stock = stockLedger.confirm(id, quantity);
+            if (stock < 0) {
+                throw new IllegalArgumentException("Insufficient stock for product with ID " + id);
+            }
+            if (stockLedger.isHot(id)) {
+                return publishHotStock(id);
+            }
+            Product confirmed = ProductVersions.copyOf(products.get(id));
+            confirmed.setStock(stock);
+            return save(confirmed);
+        }
+    }
+
+    @Override
+    public boolean decrementStock(Integer id, int quantity) {
+        Product product = products.get(id);
+        if (product == null) {
+            throw new IllegalArgumentException("Product with ID " + id + " not found");
+        }
+        // Hot products only touch their striped counter; publishHotStocks saves the stock later
+        if (stockLedger.isHot(id)) {
+            return stockLedger.decrement(id, quantity);
+        }
+        synchronized (lockOf(id)) {
+            if (!stockLedger.decrement(id, quantity)) {
+                return false;
+            }
+            Product decremented = ProductVersions.copyOf(products.get(id));
+            decremented.setStock(StockLedger.stock(stockLedger.get(id)));
+            save(decremented);
+            return true;
+        }
+    }
+
+    @Override
+    public void setHot(Integer id, boolean hot) {
+        Product product = products.get(id);
+        if (product == null) {
+            throw new IllegalArgumentException("Product with ID " + id + " not found");
+        }
+        synchronized (lockOf(id)) {
+            if (hot) {
+                stockLedger.makeHot(id, StripedStockCounter.defaultStripes());
+            } else if (stockLedger.isHot(id)) {
+                publishHotStock(id);
+                stockLedger.makeCold(id);
+            }
+        }
+    }
+
+    @Override
+    public Optional<StockAvailability> findStockAvailability(Integer id) {
+        long entry = stockLedger.get(id);
+        if (entry < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new StockAvailability(id, StockLedger.stock(entry), StockLedger.reserved(entry),
+                StockLedger.available(entry)));
+    }
+
+    @Override
+    public List<ProductSearchResult> search(String query, int limit) {
+        try {
+            awaitIndexes();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while the search index was being built", e);
+        }
+        List<ProductSearchIndex.Hit> hits = searchIndex.search(query, limit);
+        List<ProductSearchResult> results = new ArrayList<>(hits.size());
+        for (ProductSearchIndex.Hit hit : hits) {
+            Product product = products.get(hit.id());
+            if (product != null) {
+                results.add(new ProductSearchResult(withLiveStock(product), hit.score()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public long count() {
+        return products.size();
     }
 
     @Override
@@ -56,13 +568,209 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public void deleteById(Integer id) {
+        // Numbered before the indexes change, like every write, see findAllAsOf
+        long version = changeIndex.nextSequence(sequence);
+        try {
+            removeProduct(id);
+            notifyDeleted(id, version);
+        } finally {
+            changeIndex.release(version);
+        }
+    }
+
+    private void removeProduct(Integer id) {
         products.remove(id);
+        jsonCache.invalidate(id);
+        unindex(id);
+        stockHistories.remove(id);
+        stockLedger.remove(id);
     }
 
     @Override
     public void deleteAll() {
+        long version = changeIndex.nextSequence(sequence);
+        try {
+            clearProducts();
+            versions.cleared(version);
+            changeIndex.cleared(version);
+            notifyCleared(version);
+        } finally {
+            changeIndex.release(version);
+        }
+    }
+
+    @Override
+    public void clearReplicated(long version) {
+        // Numbered by the source, a local number could be one the source hands out next
+        sequence.set(version);
+        clearProducts();
+        // Products older than the clear may be applied next (a snapshot), so nothing from before stays readable
+        versions.reset();
+        changeIndex.reset(version);
+        notifyCleared(version);
+    }
+
+    private void clearProducts() {
         products.clear();
+        jsonCache.clear();
+        searchIndex.clear();
+        unitPriceIndex.clear();
+        expirationDateIndex.clear();
+        categoryIndex.clear();
+        stockBitmap.clear();
+        stockHistories.clear();
+        stockLedger.clear();
+        replicatedDeletes.clear();
         idCounter.set(0);
     }
 
+    private void notifyCleared(long version) {
+        for (ProductChangeListener listener : changeListeners) {
+            listener.cleared(version);
+        }
+    }
+
+    private void notifySaved(Product product) {
+        versions.saved(product);
+        changeIndex.saved(product);
+        for (ProductChangeListener listener : changeListeners) {
+            listener.saved(product);
+        }
+    }
+
+    private void notifyDeleted(Integer id, long version) {
+        versions.deleted(id, version);
+        changeIndex.deleted(id, version);
+        for (ProductChangeListener listener : changeListeners) {
+            listener.deleted(id, version);
+        }
+    }
+
+    // Products are updated in place, so the series itself remembers the previous stock
+    private void recordStock(Product product) {
+        StockTimeSeries series = stockHistories.get(product.getId());
+        if (series == null) {
+            series = stockHistories.computeIfAbsent(product.getId(), id -> new StockTimeSeries(0));
+        }
+        series.record(System.currentTimeMillis(), stockOf(product));
+    }
+
+    private static int stockOf(Product product) {
+        return product.getStock() == null ? 0 : product.getStock();
+    }
+
+    /**
+     * Stores a copy of a hot product with its exact stock (striped counter plus
+     * reserved units), with the bookkeeping of a save, when it moved since the
+     * last time. Returns the stored product, null when it is gone.
+     */
+    private Product publishHotStock(Integer id) {
+        synchronized (lockOf(id)) {
+            Product product = products.get(id);
+            if (product == null || !stockLedger.isHot(id)) {
+                return product;
+            }
+            int stock = StockLedger.stock(stockLedger.get(id));
+            if (stock == stockOf(product)) {
+                return product;
+            }
+            long version = changeIndex.nextSequence(sequence);
+            try {
+                Product published = ProductVersions.copyOf(product);
+                published.setStock(stock);
+                published.setVersion(version);
+                products.put(id, published);
+                jsonCache.invalidate(id);
+                recordStock(published);
+                stockBitmap.put(id, stock);
+                notifySaved(published);
+                return published;
+            } finally {
+                changeIndex.release(version);
+            }
+        }
+    }
+
+    /**
+     * Saves the stock of every hot product that moved since it was last
+     * published, so the stock bitmap, history, change feed and followers catch
+     * up with sales. Reads never write; they return {@link #withLiveStock} copies.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.hot-publish-interval-ms:" + DEFAULT_HOT_PUBLISH_INTERVAL_MILLIS + "}")
+    public void publishHotStocks() {
+        for (Integer id : stockLedger.hotIds()) {
+            publishHotStock(id);
+        }
+    }
+
+    private Object lockOf(Integer id) {
+        return stockLocks[id & (stockLocks.length - 1)];
+    }
+
+    /**
+     * The product as readers should see it: a hot product whose counter moved
+     * since the last publish comes back as a copy carrying the exact stock and
+     * the same version, leaving the stored product untouched.
+     */
+    private Product withLiveStock(Product product) {
+        if (!stockLedger.isHot(product.getId())) {
+            return product;
+        }
+        int stock = StockLedger.stock(stockLedger.get(product.getId()));
+        if (stock < 0 || stock == stockOf(product)) {
+            return product;
+        }
+        Product copy = ProductVersions.copyOf(product);
+        copy.setStock(stock);
+        return copy;
+    }
+
+    private void index(Product product) {
+        searchIndex.index(product);
+        unitPriceIndex.put(product.getId(), product.getUnitPrice());
+        expirationDateIndex.put(product.getId(), product.getExpirationDate());
+        categoryIndex.put(product.getId(), product.getCategory());
+        stockBitmap.put(product.getId(), product.getStock());
+    }
+
+    private void unindex(Integer id) {
+        searchIndex.remove(id);
+        unitPriceIndex.remove(id);
+        expirationDateIndex.remove(id);
+        categoryIndex.remove(id);
+        stockBitmap.remove(id);
+    }
+
+    // The index finders while the indexes are being built
+    private List<Product> scan(Predicate<Product> condition) {
+        List<Product> found = new ArrayList<>();
+        for (Product product : products.values()) {
+            product = withLiveStock(product);
+            if (condition.test(product)) {
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    private static <K extends Comparable<? super K>> ProductStatistics.KeyRange keyRange(SortedIndex<K> index,
+            ToDoubleFunction<K> toNumber) {
+        K min = index.firstKey();
+        K max = index.lastKey();
+        if (min == null || max == null) {
+            return new ProductStatistics.KeyRange(0, 0, 0);
+        }
+        return new ProductStatistics.KeyRange(toNumber.applyAsDouble(min), toNumber.applyAsDouble(max), index.size());
+    }
+
+    private List<Product> productsOf(List<Integer> ids) {
+        List<Product> found = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                found.add(withLiveStock(product));
+            }
+        }
+        return found;
+    }
 }
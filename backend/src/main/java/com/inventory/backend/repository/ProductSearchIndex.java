@@ -0,0 +1,382 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant index over product name tokens. Each token has a posting list of
+ * product IDs kept as a sorted {@code int[]}; a {@link TermTrie} over the distinct
+ * tokens finds terms within a bounded edit distance of a query token and a sorted
+ * term set answers prefixes. The repository updates it incrementally on every
+ * write; a term whose last product goes away leaves the trie and the term set. Queries merge posting lists in ID order, so scoring works on primitive
+ * arrays and allocates in proportion to the matches only.
+ */
+public class ProductSearchIndex {
+    // Query tokens this common (and 4x the candidates so far) only re-score those candidates
+    private static final int FREQUENT_TERM_POSTINGS = 10_000;
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    public record Hit(int id, double score) {
+    }
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, String[]> productTerms = new HashMap<>();
+    private final NavigableSet<String> terms = new TreeSet<>();
+    private final TermTrie termTrie = new TermTrie();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Product product) {
+        String[] newTerms = tokenize(product.getName());
+        lock.writeLock().lock();
+        try {
+            String[] oldTerms = productTerms.put(product.getId(), newTerms);
+            if (oldTerms != null) {
+                removePostings(product.getId(), oldTerms);
+            }
+            for (String term : newTerms) {
+                Postings ids = postings.get(term);
+                if (ids == null) {
+                    ids = new Postings();
+                    postings.put(term, ids);
+                    terms.add(term);
+                    termTrie.add(term);
+                }
+                ids.add(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            String[] oldTerms = productTerms.remove(id);
+            if (oldTerms != null) {
+                removePostings(id, oldTerms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            productTerms.clear();
+            terms.clear();
+            termTrie.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks products by how well their name tokens match the query tokens. Per
+     * query token a product scores its best term: exact 1.0, typo 0.8 (one edit)
+     * or 0.6 (two edits), prefix 0.6 to 0.9 by covered length. Scores add up
+     * across query tokens, ties go to the lower ID.
+     */
+    public List<Hit> search(String query, int limit) {
+        String[] queryTerms = new LinkedHashSet<>(List.of(tokenize(query))).toArray(String[]::new);
+        if (queryTerms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<TermMatches> matchesPerToken = new ArrayList<>(queryTerms.length);
+            for (String queryTerm : queryTerms) {
+                matchesPerToken.add(matchTerms(queryTerm));
+            }
+            // Rarest query tokens first, so frequent ones can be restricted to their candidates
+            matchesPerToken.sort(Comparator.comparingLong(TermMatches::postingCount));
+
+            ScoredIds scored = null;
+            for (TermMatches matches : matchesPerToken) {
+                long postingCount = matches.postingCount();
+                if (scored != null && scored.size > 0 && postingCount > FREQUENT_TERM_POSTINGS
+                        && postingCount > 4L * scored.size) {
+                    scored.addBestScores(matches);
+                } else {
+                    ScoredIds tokenScores = matches.merge();
+                    scored = scored == null ? tokenScores : scored.union(tokenScores);
+                }
+            }
+            return scored.top(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termTrie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Terms matching one query token with their score; caller holds the read lock
+    private TermMatches matchTerms(String queryTerm) {
+        Map<String, Double> matchedTerms = new HashMap<>();
+        int maxDistance = queryTerm.length() <= 3 ? 0 : queryTerm.length() <= 7 ? 1 : 2;
+        termTrie.search(queryTerm, maxDistance, (term, distance) -> matchedTerms.put(term, 1.0 - 0.2 * distance));
+
+        if (queryTerm.length() >= 2) {
+            int prefixTerms = 0;
+            for (String term : terms.subSet(queryTerm, false, queryTerm + Character.MAX_VALUE, false)) {
+                if (prefixTerms++ == MAX_PREFIX_TERMS) {
+                    break;
+                }
+                double prefixScore = 0.6 + 0.3 * queryTerm.length() / term.length();
+                matchedTerms.merge(term, prefixScore, Math::max);
+            }
+        }
+
+        TermMatches matches = new TermMatches(matchedTerms.size());
+        matchedTerms.forEach((term, score) -> matches.add(postings.get(term), score));
+        return matches;
+    }
+
+    private void removePostings(Integer id, String[] oldTerms) {
+        for (String term : oldTerms) {
+            Postings ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.size == 0) {
+                    postings.remove(term);
+                    terms.remove(term);
+                    termTrie.remove(term);
+                }
+            }
+        }
+    }
+
+    /** Sorted, duplicate-free product IDs of one term. */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            // New products get increasing IDs, so the common case is an append
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0 && position < size) {
+                return;
+            }
+            position = position < 0 ? -position - 1 : position;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    /** The terms matched by one query token, each with its posting list and score. */
+    private static final class TermMatches {
+        private final Postings[] lists;
+        private final double[] scores;
+        private int count;
+
+        TermMatches(int capacity) {
+            lists = new Postings[capacity];
+            scores = new double[capacity];
+        }
+
+        void add(Postings list, double score) {
+            lists[count] = list;
+            scores[count++] = score;
+        }
+
+        long postingCount() {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += lists[i].size;
+            }
+            return total;
+        }
+
+        // K-way merge of the posting lists in ID order, keeping each ID's best term score
+        ScoredIds merge() {
+            ScoredIds merged = new ScoredIds((int) postingCount());
+            int[] cursors = new int[count];
+            while (true) {
+                int minId = Integer.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    if (cursors[i] < lists[i].size) {
+                        minId = Math.min(minId, lists[i].ids[cursors[i]]);
+                    }
+                }
+                if (minId == Integer.MAX_VALUE) {
+                    return merged;
+                }
+                double best = 0;
+                for (int i = 0; i < count; i++) {
+                    if (cursors[i] < lists[i].size && lists[i].ids[cursors[i]] == minId) {
+                        best = Math.max(best, scores[i]);
+                        cursors[i]++;
+                    }
+                }
+                merged.append(minId, best);
+            }
+        }
+
+        double bestScore(int id) {
+            double best = 0;
+            for (int i = 0; i < count; i++) {
+                if (scores[i] > best && lists[i].contains(id)) {
+                    best = scores[i];
+                }
+            }
+            return best;
+        }
+    }
+
+    /** Product IDs in ascending order with their accumulated score. */
+    private static final class ScoredIds {
+        private final int[] ids;
+        private final double[] scores;
+        private int size;
+
+        ScoredIds(int capacity) {
+            ids = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void append(int id, double score) {
+            ids[size] = id;
+            scores[size++] = score;
+        }
+
+        ScoredIds union(ScoredIds other) {
+            ScoredIds result = new ScoredIds(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && ids[i] < other.ids[j])) {
+                    result.append(ids[i], scores[i++]);
+                } else if (i == size || other.ids[j] < ids[i]) {
+                    result.append(other.ids[j], other.scores[j++]);
+                } else {
+                    result.append(ids[i], scores[i++] + other.scores[j++]);
+                }
+            }
+            return result;
+        }
+
+        void addBestScores(TermMatches matches) {
+            for (int i = 0; i < size; i++) {
+                scores[i] += matches.bestScore(ids[i]);
+            }
+        }
+
+        List<Hit> top(int limit) {
+            // Min-heap (worst hit at the root) of up to `limit` positions
+            int[] heap = new int[Math.min(limit, size)];
+            int heapSize = 0;
+            for (int position = 0; position < size; position++) {
+                if (heapSize < heap.length) {
+                    heap[heapSize] = position;
+                    siftUp(heap, heapSize++);
+                } else if (ranksBefore(position, heap[0])) {
+                    heap[0] = position;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            Hit[] hits = new Hit[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                hits[i] = new Hit(ids[heap[0]], scores[heap[0]]);
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return List.of(hits);
+        }
+
+        // Higher score first, then lower ID
+        private boolean ranksBefore(int a, int b) {
+            return scores[a] != scores[b] ? scores[a] > scores[b] : ids[a] < ids[b];
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!ranksBefore(heap[parent], heap[index])) {
+                    return;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < heapSize && ranksBefore(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < heapSize && ranksBefore(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(heap, index, worst);
+                index = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int swap = heap[a];
+            heap[a] = heap[b];
+            heap[b] = swap;
+        }
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,149 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary snapshot of the product store. The file is a header (magic, format
+ * version, product count) followed by fixed-order product records, and is read
+ * back through a memory-mapped buffer so startup does one bulk load instead of
+ * parsing or saving products one by one.
+ */
+public final class ProductSnapshot {
+    private static final int MAGIC = 0x494E5650; // "INVP"
+    private static final int FORMAT_VERSION = 1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private ProductSnapshot() {
+    }
+
+    public static void write(Path path, Collection<Product> products) throws IOException {
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(products.size());
+            for (Product product : products) {
+                writeProduct(out, product);
+            }
+        }
+        // Never leave a half-written snapshot behind for the next startup
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static List<Product> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a product snapshot: " + path);
+            }
+            int formatVersion = buffer.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported product snapshot version " + formatVersion + ": " + path);
+            }
+
+            int count = buffer.getInt();
+            List<Product> products = new ArrayList<>(Math.min(Math.max(count, 0), buffer.remaining()));
+            try {
+                for (int i = 0; i < count; i++) {
+                    products.add(readProduct(buffer));
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+                // Record lengths past the end of the file or out of range
+                throw new IOException("Truncated or corrupt product snapshot after " + products.size() + " of "
+                        + count + " products: " + path, e);
+            }
+            return products;
+        }
+    }
+
+    /** One product record on its own, e.g. for a replication log entry. */
+    public static byte[] encode(Product product) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeProduct(out, product);
+        } catch (IOException e) {
+            // In-memory streams do not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Product decode(byte[] record) {
+        return readProduct(ByteBuffer.wrap(record));
+    }
+
+    static void writeProduct(DataOutputStream out, Product product) throws IOException {
+        out.writeInt(product.getId());
+        writeString(out, product.getName());
+        writeString(out, product.getCategory());
+        byte[] unscaledPrice = product.getUnitPrice().unscaledValue().toByteArray();
+        out.writeInt(product.getUnitPrice().scale());
+        out.writeShort(unscaledPrice.length);
+        out.write(unscaledPrice);
+        writeDate(out, product.getExpirationDate());
+        out.writeInt(product.getStock());
+        writeDate(out, product.getCreationDate());
+        writeDate(out, product.getUpdateDate());
+    }
+
+    static Product readProduct(ByteBuffer buffer) {
+        int id = buffer.getInt();
+        String name = readString(buffer);
+        String category = readString(buffer);
+        int scale = buffer.getInt();
+        byte[] unscaledPrice = new byte[buffer.getShort()];
+        buffer.get(unscaledPrice);
+        LocalDate expirationDate = readDate(buffer);
+        int stock = buffer.getInt();
+
+        Product product = new Product(name, category, new BigDecimal(new BigInteger(unscaledPrice), scale),
+                expirationDate, stock);
+        product.setId(id);
+        product.setCreationDate(readDate(buffer));
+        product.setUpdateDate(readDate(buffer));
+        return product;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeLong(date == null ? NO_DATE : date.toEpochDay());
+    }
+
+    private static LocalDate readDate(ByteBuffer buffer) {
+        long epochDay = buffer.getLong();
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
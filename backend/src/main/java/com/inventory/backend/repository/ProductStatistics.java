@@ -0,0 +1,41 @@
+package com.inventory.backend.repository;
+
+import java.util.Map;
+
+/**
+ * Cardinality statistics of the repository's secondary indexes, cheap enough to
+ * read on every query: products per category, the in-stock split, and the
+ * bounds of the price and expiration date indexes. Used to estimate filter
+ * selectivity before choosing an access path.
+ */
+public record ProductStatistics(
+        long productCount,
+        Map<String, Integer> categoryCounts,
+        long inStockCount,
+        long outOfStockCount,
+        KeyRange unitPrice,
+        KeyRange expirationDate) {
+
+    /**
+     * Smallest and largest indexed value as a number (prices as-is, dates as
+     * epoch days) and how many products have a value at all.
+     */
+    public record KeyRange(double min, double max, long count) {
+
+        /** Fraction of the indexed values in the range, assuming they are spread evenly. */
+        public double fractionBetween(Double from, Double to) {
+            if (count == 0) {
+                return 0;
+            }
+            double lower = from == null ? min : Math.max(from, min);
+            double upper = to == null ? max : Math.min(to, max);
+            if (upper < lower) {
+                return 0;
+            }
+            if (max == min) {
+                return 1;
+            }
+            return Math.max((upper - lower) / (max - min), 1.0 / count);
+        }
+    }
+}
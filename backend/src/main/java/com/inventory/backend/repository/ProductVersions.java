@@ -0,0 +1,249 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Multi-version view of the product store for consistent paging. Every change
+ * pushes the stored product (or a deletion marker) tagged with its sequence
+ * number onto that product's version chain, newest first. The repository
+ * replaces stored products instead of changing them, so the head of a chain is
+ * the live product itself and only superseded versions take extra memory. A
+ * snapshot is a sequence number; reading it takes from each chain the newest
+ * version not after it.
+ * <p>
+ * Only versions some open snapshot can still see are kept: a superseded version
+ * is dropped as soon as no snapshot falls between it and its successor. Snapshots
+ * expire after {@code ttlMillis} without reads, and when more than
+ * {@code maxVersions} old versions pile up the oldest snapshots are expired early
+ * until they fit again.
+ */
+final class ProductVersions implements ProductChangeListener {
+    static final int DEFAULT_MAX_VERSIONS = 100_000;
+    static final long DEFAULT_TTL_MILLIS = 120_000;
+    private static final long EXPIRY_INTERVAL_MILLIS = 1000;
+
+    private static final class Version {
+        final long version;
+        // Null marks a deletion
+        final Product product;
+        volatile Version older;
+
+        Version(long version, Product product) {
+            this.version = version;
+            this.product = product;
+        }
+    }
+
+    private final Map<Integer, Version> chains = new ConcurrentHashMap<>();
+    // Open snapshots by sequence number, with the time they were last read
+    private final ConcurrentSkipListMap<Long, Long> snapshots = new ConcurrentSkipListMap<>();
+    // Snapshots registering right now; pruning waits for them (see prune)
+    private final AtomicInteger opening = new AtomicInteger();
+    // Versions other than the current one of a product, deletion markers included
+    private final AtomicInteger retained = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final int maxVersions;
+    private final long ttlMillis;
+    private volatile long lastExpiry;
+
+    ProductVersions(int maxVersions, long ttlMillis) {
+        this.maxVersions = maxVersions;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public void saved(Product product) {
+        push(product.getId(), new Version(product.getVersion(), product));
+    }
+
+    @Override
+    public void deleted(Integer id, long version) {
+        if (chains.containsKey(id)) {
+            push(id, new Version(version, null));
+        }
+    }
+
+    @Override
+    public void cleared(long version) {
+        for (Integer id : chains.keySet()) {
+            push(id, new Version(version, null));
+        }
+    }
+
+    /** Drops every version and open snapshot, for a store that starts over from another store's versions. */
+    void reset() {
+        chains.clear();
+        snapshots.clear();
+        retained.set(0);
+    }
+
+    /** Opens a snapshot at {@code sequence}, the latest sequence number assigned. */
+    long open(LongSupplier sequence) {
+        long now = System.currentTimeMillis();
+        opening.incrementAndGet();
+        long snapshot;
+        try {
+            snapshot = sequence.getAsLong();
+            snapshots.merge(snapshot, now, Math::max);
+        } finally {
+            opening.decrementAndGet();
+        }
+        if (now - lastExpiry >= EXPIRY_INTERVAL_MILLIS) {
+            lastExpiry = now;
+            if (expireIdle(now)) {
+                sweep();
+            }
+        }
+        return snapshot;
+    }
+
+    /** The products as of {@code snapshot}, or null when it is not open (expired or never opened). */
+    List<Product> read(long snapshot) {
+        if (snapshots.computeIfPresent(snapshot, (key, lastRead) -> System.currentTimeMillis()) == null) {
+            return null;
+        }
+        List<Product> visible = new ArrayList<>(chains.size());
+        for (Version version : chains.values()) {
+            while (version != null && version.version > snapshot) {
+                version = version.older;
+            }
+            if (version != null && version.product != null) {
+                visible.add(version.product);
+            }
+        }
+        return visible;
+    }
+
+    /** The given products as of {@code snapshot}, or null when it is not open. */
+    List<Product> read(long snapshot, Collection<Integer> ids) {
+        if (snapshots.computeIfPresent(snapshot, (key, lastRead) -> System.currentTimeMillis()) == null) {
+            return null;
+        }
+        List<Product> visible = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Version version = chains.get(id);
+            while (version != null && version.version > snapshot) {
+                version = version.older;
+            }
+            if (version != null && version.product != null) {
+                visible.add(version.product);
+            }
+        }
+        return visible;
+    }
+
+    int retainedVersions() {
+        return retained.get();
+    }
+
+    int openSnapshots() {
+        return snapshots.size();
+    }
+
+    private void push(Integer id, Version version) {
+        chains.compute(id, (key, head) -> {
+            if (head == null) {
+                if (version.product == null) {
+                    return null;
+                }
+                return version;
+            }
+            if (head.version > version.version) {
+                // A concurrent write of the same product got here first, file this one behind it
+                Version newer = head;
+                while (newer.older != null && newer.older.version > version.version) {
+                    newer = newer.older;
+                }
+                version.older = newer.older;
+                newer.older = version;
+                retained.incrementAndGet();
+                return prune(head);
+            }
+            version.older = head;
+            if (head.product != null) {
+                retained.incrementAndGet();
+            }
+            if (version.product == null) {
+                retained.incrementAndGet();
+            }
+            return prune(version);
+        });
+        if (retained.get() > maxVersions) {
+            enforceCap();
+        }
+    }
+
+    /**
+     * Drops the versions of one chain no open snapshot can see, and the chain
+     * itself when only a deletion is left. Runs inside the chain's compute.
+     */
+    private Version prune(Version head) {
+        // A snapshot reading the sequence right now may still need any version: leave pruning to the next write
+        if (opening.get() > 0) {
+            return head;
+        }
+        Version newer = head;
+        Version version = head.older;
+        while (version != null) {
+            Long snapshot = snapshots.ceilingKey(version.version);
+            if (snapshot == null || snapshot >= newer.version) {
+                newer.older = version.older;
+                retained.decrementAndGet();
+            } else {
+                newer = version;
+            }
+            version = newer.older;
+        }
+        if (head.product == null && head.older == null) {
+            retained.decrementAndGet();
+            return null;
+        }
+        return head;
+    }
+
+    private void sweep() {
+        for (Integer id : chains.keySet()) {
+            chains.computeIfPresent(id, (key, head) -> prune(head));
+        }
+    }
+
+    private boolean expireIdle(long now) {
+        return snapshots.values().removeIf(lastRead -> now - lastRead > ttlMillis);
+    }
+
+    private void enforceCap() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            expireIdle(System.currentTimeMillis());
+            sweep();
+            // Still over the cap: give up the oldest snapshots, whose versions are the oldest
+            while (retained.get() > maxVersions && snapshots.pollFirstEntry() != null) {
+                sweep();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getCategory(), product.getUnitPrice(),
+                product.getExpirationDate(), product.getStock());
+        copy.setId(product.getId());
+        copy.setCreationDate(product.getCreationDate());
+        copy.setUpdateDate(product.getUpdateDate());
+        copy.setVersion(product.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,106 @@
+package com.inventory.backend.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary index from a comparable product field to product IDs, answering
+ * range scans without touching products outside the range. The field value each
+ * product was indexed under is remembered, because services update products in
+ * place before saving them and the old key is no longer readable from the
+ * product. Products with a {@code null} value are not indexed.
+ */
+final class SortedIndex<K extends Comparable<? super K>> {
+    private final ConcurrentSkipListMap<K, Set<Integer>> entries = new ConcurrentSkipListMap<>();
+    private final Map<Integer, K> indexedKeys = new ConcurrentHashMap<>();
+
+    synchronized void put(Integer id, K key) {
+        K oldKey = key == null ? indexedKeys.remove(id) : indexedKeys.put(id, key);
+        if (oldKey != null && key != null && oldKey.compareTo(key) == 0) {
+            return;
+        }
+        if (oldKey != null) {
+            removeEntry(oldKey, id);
+        }
+        if (key != null) {
+            entries.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    synchronized void remove(Integer id) {
+        K oldKey = indexedKeys.remove(id);
+        if (oldKey != null) {
+            removeEntry(oldKey, id);
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        indexedKeys.clear();
+    }
+
+    /** IDs with a key in the range; a {@code null} bound leaves that side open. */
+    List<Integer> range(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        NavigableMap<K, Set<Integer>> range = entries;
+        if (from != null && to != null) {
+            if (from.compareTo(to) > 0) {
+                return List.of();
+            }
+            range = entries.subMap(from, fromInclusive, to, toInclusive);
+        } else if (from != null) {
+            range = entries.tailMap(from, fromInclusive);
+        } else if (to != null) {
+            range = entries.headMap(to, toInclusive);
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        for (Collection<Integer> idsWithKey : range.values()) {
+            ids.addAll(idsWithKey);
+        }
+        return ids;
+    }
+
+    /** IDs indexed under exactly {@code key}. */
+    List<Integer> get(K key) {
+        Set<Integer> ids = entries.get(key);
+        return ids == null ? List.of() : new ArrayList<>(ids);
+    }
+
+    /** Number of IDs per distinct key, in key order. */
+    Map<K, Integer> keyCounts() {
+        Map<K, Integer> counts = new LinkedHashMap<>();
+        entries.forEach((key, ids) -> counts.put(key, ids.size()));
+        return counts;
+    }
+
+    K firstKey() {
+        Map.Entry<K, Set<Integer>> first = entries.firstEntry();
+        return first == null ? null : first.getKey();
+    }
+
+    K lastKey() {
+        Map.Entry<K, Set<Integer>> last = entries.lastEntry();
+        return last == null ? null : last.getKey();
+    }
+
+    int size() {
+        return indexedKeys.size();
+    }
+
+    private void removeEntry(K key, Integer id) {
+        Set<Integer> ids = entries.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                entries.remove(key, ids);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.inventory.backend.repository;
+
+import java.util.BitSet;
+
+/**
+ * Product IDs split into in-stock ({@code stock > 0}) and out-of-stock bitmaps,
+ * so either side of an {@code inStock} filter is one bitmap walk and its size a
+ * popcount.
+ */
+final class StockBitmap {
+    private final BitSet inStock = new BitSet();
+    private final BitSet outOfStock = new BitSet();
+
+    synchronized void put(int id, Integer stock) {
+        boolean available = stock != null && stock > 0;
+        inStock.set(id, available);
+        outOfStock.set(id, !available);
+    }
+
+    synchronized void remove(int id) {
+        inStock.clear(id);
+        outOfStock.clear(id);
+    }
+
+    synchronized void clear() {
+        inStock.clear();
+        outOfStock.clear();
+    }
+
+    synchronized int[] ids(boolean available) {
+        return (available ? inStock : outOfStock).stream().toArray();
+    }
+
+    synchronized int count(boolean available) {
+        return (available ? inStock : outOfStock).cardinality();
+    }
+}
@@ -0,0 +1,233 @@
+package com.inventory.backend.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock and reserved (held for checkout) units per product, packed into one
+ * {@link AtomicLong} each: stock in the high 32 bits, reserved in the low 32.
+ * Both change together through compare-and-set, so reserving never oversells
+ * and available-to-sell is a single volatile read.
+ * <p>
+ * Products flagged hot keep their available units in a
+ * {@link StripedStockCounter} instead, so decrements from many threads do not
+ * all CAS the same entry. Their entry then only tracks the reserved units and
+ * their stock is the counter's total plus the reserved units.
+ */
+final class StockLedger {
+    private final Map<Integer, AtomicLong> entries = new ConcurrentHashMap<>();
+    private final Map<Integer, StripedStockCounter> hotCounters = new ConcurrentHashMap<>();
+
+    static int stock(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    static int reserved(long entry) {
+        return (int) entry;
+    }
+
+    static int available(long entry) {
+        return Math.max(stock(entry) - reserved(entry), 0);
+    }
+
+    private static long pack(int stock, int reserved) {
+        return ((long) stock << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    /** Sets the stock, keeping the units already reserved. */
+    void setStock(Integer id, int stock) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(id, key -> new AtomicLong());
+        }
+        long current;
+        do {
+            current = entry.get();
+        } while (!entry.compareAndSet(current, pack(stock, reserved(current))));
+
+        StripedStockCounter hotCounter = hotCounters.get(id);
+        if (hotCounter != null) {
+            hotCounter.reset(Math.max(stock - reserved(current), 0));
+        }
+    }
+
+    /**
+     * Sets the stock, keeping the units already reserved, if it is still
+     * {@code expectedStock}; false when units were sold, received or the stock
+     * was set since, or the product is unknown.
+     */
+    boolean compareAndSetStock(Integer id, int expectedStock, int stock) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        StripedStockCounter hotCounter = hotCounters.get(id);
+        if (hotCounter != null) {
+            // A hot product's stock is its counter plus the reserved units, which stay in the entry
+            int reserved = reserved(entry.get());
+            return hotCounter.compareAndReset(expectedStock - reserved, Math.max(stock - reserved, 0));
+        }
+        long current;
+        do {
+            current = entry.get();
+            if (stock(current) != expectedStock) {
+                return false;
+            }
+        } while (!entry.compareAndSet(current, pack(stock, reserved(current))));
+        return true;
+    }
+
+    /** Holds {@code quantity} units if that many are available. */
+    boolean reserve(Integer id, int quantity) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        StripedStockCounter hotCounter = hotCounters.get(id);
+        if (hotCounter != null) {
+            if (!hotCounter.tryDecrement(quantity)) {
+                return false;
+            }
+            entry.getAndAdd(quantity);
+            return true;
+        }
+        long current;
+        do {
+            current = entry.get();
+            if (available(current) < quantity) {
+                return false;
+            }
+        } while (!entry.compareAndSet(current, pack(stock(current), reserved(current) + quantity)));
+        return true;
+    }
+
+    void release(Integer id, int quantity) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            return;
+        }
+        long current;
+        do {
+            current = entry.get();
+        } while (!entry.compareAndSet(current,
+                pack(stock(current), Math.max(reserved(current) - quantity, 0))));
+
+        StripedStockCounter hotCounter = hotCounters.get(id);
+        if (hotCounter != null) {
+            hotCounter.add(Math.min(quantity, reserved(current)));
+        }
+    }
+
+    /**
+     * Turns {@code quantity} held units into a sale, taking them off stock and
+     * reserved at once. Returns the new stock, or -1 when the stock was lowered
+     * below the held units in the meantime (the hold is released either way).
+     */
+    int confirm(Integer id, int quantity) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            return -1;
+        }
+        StripedStockCounter hotCounter = hotCounters.get(id);
+        long current;
+        long updated;
+        do {
+            current = entry.get();
+            int reserved = Math.max(reserved(current) - quantity, 0);
+            // Hot products hold reserved units outside the counter, dropping the hold is the sale
+            int stock = hotCounter != null || stock(current) < quantity ? stock(current) : stock(current) - quantity;
+            updated = pack(stock, reserved);
+        } while (!entry.compareAndSet(current, updated));
+        if (hotCounter != null) {
+            return (int) hotCounter.sum() + reserved(updated);
+        }
+        return stock(current) >= quantity ? stock(updated) : -1;
+    }
+
+    /** Sells {@code quantity} units if that many are available. */
+    boolean decrement(Integer id, int quantity) {
+        StripedStockCounter hotCounter = hotCounters.get(id);
+        if (hotCounter != null) {
+            return hotCounter.tryDecrement(quantity);
+        }
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        long current;
+        do {
+            current = entry.get();
+            if (available(current) < quantity) {
+                return false;
+            }
+        } while (!entry.compareAndSet(current, pack(stock(current) - quantity, reserved(current))));
+        return true;
+    }
+
+    /** The packed entry with the exact stock, or -1 for unknown products. */
+    long get(Integer id) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            return -1;
+        }
+        long current = entry.get();
+        StripedStockCounter hotCounter = hotCounters.get(id);
+        if (hotCounter != null) {
+            return pack((int) hotCounter.sum() + reserved(current), reserved(current));
+        }
+        return current;
+    }
+
+    /** Moves the product's available units into a striped counter. */
+    synchronized void makeHot(Integer id, int stripes) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null || hotCounters.containsKey(id)) {
+            return;
+        }
+        StripedStockCounter hotCounter = new StripedStockCounter(stripes);
+        hotCounters.put(id, hotCounter);
+        // Decrements that raced the switch either landed on the entry first or find no units there
+        long current;
+        do {
+            current = entry.get();
+        } while (!entry.compareAndSet(current, pack(reserved(current), reserved(current))));
+        hotCounter.add(available(current));
+    }
+
+    /** Folds the striped counter back into the packed entry. */
+    synchronized void makeCold(Integer id) {
+        StripedStockCounter hotCounter = hotCounters.remove(id);
+        AtomicLong entry = entries.get(id);
+        if (hotCounter == null || entry == null) {
+            return;
+        }
+        int available = (int) hotCounter.drain();
+        long current;
+        do {
+            current = entry.get();
+        } while (!entry.compareAndSet(current, pack(available + reserved(current), reserved(current))));
+    }
+
+    boolean isHot(Integer id) {
+        return hotCounters.containsKey(id);
+    }
+
+    boolean hasHot() {
+        return !hotCounters.isEmpty();
+    }
+
+    Iterable<Integer> hotIds() {
+        return hotCounters.keySet();
+    }
+
+    void remove(Integer id) {
+        hotCounters.remove(id);
+        entries.remove(id);
+    }
+
+    void clear() {
+        hotCounters.clear();
+        entries.clear();
+    }
+}
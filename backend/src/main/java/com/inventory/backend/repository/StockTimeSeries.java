@@ -0,0 +1,99 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.StockHistory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stock movements of one product in fixed-capacity primitive ring buffers. The
+ * latest {@link #EVENT_CAPACITY} changes keep their timestamp and delta; older
+ * ones are folded into daily received/sold buckets, of which the latest
+ * {@link #BUCKET_CAPACITY} are kept. The arrays are allocated with the first
+ * movement, after that {@link #record} only writes into them.
+ */
+final class StockTimeSeries {
+    static final int EVENT_CAPACITY = 32;
+    static final int BUCKET_CAPACITY = 30;
+    static final long BUCKET_MILLIS = 86_400_000L;
+
+    private long[] timestamps;
+    private int[] deltas;
+    private int firstEvent;
+    private int eventCount;
+
+    private long[] bucketStarts;
+    private long[] bucketReceived;
+    private long[] bucketSold;
+    private int firstBucket;
+    private int bucketCount;
+
+    private int lastStock;
+
+    StockTimeSeries(int stock) {
+        lastStock = stock;
+    }
+
+    /** Records the change from the last known stock; no-op when the stock did not move. */
+    synchronized void record(long timestamp, int stock) {
+        int delta = stock - lastStock;
+        lastStock = stock;
+        if (delta == 0) {
+            return;
+        }
+        if (timestamps == null) {
+            timestamps = new long[EVENT_CAPACITY];
+            deltas = new int[EVENT_CAPACITY];
+            bucketStarts = new long[BUCKET_CAPACITY];
+            bucketReceived = new long[BUCKET_CAPACITY];
+            bucketSold = new long[BUCKET_CAPACITY];
+        }
+        if (eventCount == EVENT_CAPACITY) {
+            downsample(timestamps[firstEvent], deltas[firstEvent]);
+            firstEvent = (firstEvent + 1) % EVENT_CAPACITY;
+            eventCount--;
+        }
+        int slot = (firstEvent + eventCount) % EVENT_CAPACITY;
+        timestamps[slot] = timestamp;
+        deltas[slot] = delta;
+        eventCount++;
+    }
+
+    synchronized StockHistory toHistory(Integer productId) {
+        List<StockHistory.Movement> movements = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            int slot = (firstEvent + i) % EVENT_CAPACITY;
+            movements.add(new StockHistory.Movement(Instant.ofEpochMilli(timestamps[slot]), deltas[slot]));
+        }
+        List<StockHistory.Bucket> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            int slot = (firstBucket + i) % BUCKET_CAPACITY;
+            buckets.add(new StockHistory.Bucket(Instant.ofEpochMilli(bucketStarts[slot]), bucketReceived[slot],
+                    bucketSold[slot]));
+        }
+        return new StockHistory(productId, lastStock, movements, buckets, null);
+    }
+
+    // Adds an evicted movement to its day's bucket, dropping the oldest day when full
+    private void downsample(long timestamp, int delta) {
+        long start = timestamp - Math.floorMod(timestamp, BUCKET_MILLIS);
+        int slot = (firstBucket + bucketCount - 1) % BUCKET_CAPACITY;
+        if (bucketCount == 0 || bucketStarts[slot] != start) {
+            if (bucketCount == BUCKET_CAPACITY) {
+                firstBucket = (firstBucket + 1) % BUCKET_CAPACITY;
+                bucketCount--;
+            }
+            slot = (firstBucket + bucketCount) % BUCKET_CAPACITY;
+            bucketCount++;
+            bucketStarts[slot] = start;
+            bucketReceived[slot] = 0;
+            bucketSold[slot] = 0;
+        }
+        if (delta > 0) {
+            bucketReceived[slot] += delta;
+        } else {
+            bucketSold[slot] -= delta;
+        }
+    }
+}
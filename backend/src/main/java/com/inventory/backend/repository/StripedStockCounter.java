@@ -0,0 +1,153 @@
+package com.inventory.backend.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock units of a hot product split across cache-line-padded stripes, each
+ * with its own budget, so concurrent decrements from different threads CAS
+ * different memory and do not contend. A thread whose stripe cannot cover a
+ * decrement drains every stripe under a lock, takes the units from the total
+ * and spreads the rest evenly again; if the total cannot cover it either, the
+ * decrement fails. The sum of the budgets therefore never goes below zero.
+ * Reads of the total take no lock: a stamp that is odd while units are moved
+ * between stripes tells {@link #sum()} to look again.
+ */
+final class StripedStockCounter {
+    // Longs per 64-byte cache line, so neighbouring stripes never share one
+    private static final int PADDING = 8;
+    static final int MAX_STRIPES = 64;
+
+    private final AtomicLongArray budgets;
+    private final int stripes;
+    private final Object rebalanceLock = new Object();
+    // Odd while a drain or redistribution is running, bumped again when it ends
+    private volatile long rebalanceStamp;
+
+    StripedStockCounter(int stripes) {
+        if (Integer.bitCount(stripes) != 1 || stripes > MAX_STRIPES) {
+            throw new IllegalArgumentException("Stripes must be a power of two up to " + MAX_STRIPES);
+        }
+        this.stripes = stripes;
+        this.budgets = new AtomicLongArray(stripes * PADDING);
+    }
+
+    /** Stripe count for this machine: the next power of two from the processor count. */
+    static int defaultStripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Math.min(Integer.highestOneBit(Math.max(processors - 1, 1)) << 1, MAX_STRIPES);
+    }
+
+    boolean tryDecrement(int quantity) {
+        int index = stripeIndex();
+        long budget = budgets.get(index);
+        while (budget >= quantity) {
+            if (budgets.compareAndSet(index, budget, budget - quantity)) {
+                return true;
+            }
+            budget = budgets.get(index);
+        }
+        return rebalanceAndDecrement(quantity);
+    }
+
+    void add(long units) {
+        budgets.getAndAdd(stripeIndex(), units);
+    }
+
+    /** Exact total; reads again when a rebalance ran meanwhile, so drained units are not missed. */
+    long sum() {
+        while (true) {
+            long stamp = rebalanceStamp;
+            if ((stamp & 1) == 0) {
+                long total = 0;
+                for (int stripe = 0; stripe < stripes; stripe++) {
+                    total += budgets.get(stripe * PADDING);
+                }
+                if (rebalanceStamp == stamp) {
+                    return total;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /** Replaces the total, discarding the current budgets. */
+    void reset(long units) {
+        synchronized (rebalanceLock) {
+            rebalanceStamp++;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                budgets.set(stripe * PADDING, 0);
+            }
+            distribute(units);
+            rebalanceStamp++;
+        }
+    }
+
+    /**
+     * Replaces the total with {@code units} if it is {@code expected}. Decrements
+     * that find their stripe drained meanwhile wait for the lock, so none lands
+     * between the check and the reset.
+     */
+    boolean compareAndReset(long expected, long units) {
+        synchronized (rebalanceLock) {
+            rebalanceStamp++;
+            try {
+                long total = 0;
+                for (int stripe = 0; stripe < stripes; stripe++) {
+                    total += budgets.getAndSet(stripe * PADDING, 0);
+                }
+                distribute(total == expected ? units : total);
+                return total == expected;
+            } finally {
+                rebalanceStamp++;
+            }
+        }
+    }
+
+    /** Takes every unit out of the counter and returns how many there were. */
+    long drain() {
+        synchronized (rebalanceLock) {
+            rebalanceStamp++;
+            long total = 0;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                total += budgets.getAndSet(stripe * PADDING, 0);
+            }
+            rebalanceStamp++;
+            return total;
+        }
+    }
+
+    private boolean rebalanceAndDecrement(int quantity) {
+        synchronized (rebalanceLock) {
+            rebalanceStamp++;
+            try {
+                long total = 0;
+                for (int stripe = 0; stripe < stripes; stripe++) {
+                    total += budgets.getAndSet(stripe * PADDING, 0);
+                }
+                if (total < quantity) {
+                    distribute(total);
+                    return false;
+                }
+                distribute(total - quantity);
+                return true;
+            } finally {
+                rebalanceStamp++;
+            }
+        }
+    }
+
+    // Adds rather than sets, keeping units released into a stripe while it was drained
+    private void distribute(long units) {
+        long share = units / stripes;
+        long remainder = units % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            budgets.getAndAdd(stripe * PADDING, share + (stripe < remainder ? 1 : 0));
+        }
+    }
+
+    private int stripeIndex() {
+        // Fibonacci hash of the thread ID, so pool threads with consecutive IDs spread out
+        long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 58) % stripes * PADDING;
+    }
+}
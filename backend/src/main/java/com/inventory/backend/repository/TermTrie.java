@@ -0,0 +1,150 @@
+package com.inventory.backend.repository;
+
+import java.util.Arrays;
+
+/**
+ * Trie over distinct terms that finds every term within a bounded Levenshtein
+ * distance of a query. The search walks the trie carrying one row of the edit
+ * distance matrix per depth and abandons a branch as soon as the smallest value
+ * in its row exceeds the bound, which is equivalent to intersecting the trie with
+ * a Levenshtein automaton for the query. Not thread safe;
+ * {@link ProductSearchIndex} guards it with its lock.
+ */
+final class TermTrie {
+
+    interface TermVisitor {
+        void visit(String term, int distance);
+    }
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final class Node {
+        // Sorted edge labels and their children
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private String term;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node addChild(char key) {
+            int position = -Arrays.binarySearch(keys, key) - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newKeys[position] = key;
+            newChildren[position] = child;
+            System.arraycopy(keys, position, newKeys, position + 1, keys.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(keys, position + 1, newKeys, position, newKeys.length - position);
+            System.arraycopy(children, position + 1, newChildren, position, newChildren.length - position);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+    }
+
+    private Node root = new Node();
+    private int size;
+    private int maxLength;
+
+    void add(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            Node child = node.child(term.charAt(i));
+            node = child != null ? child : node.addChild(term.charAt(i));
+        }
+        if (node.term == null) {
+            node.term = term;
+            size++;
+            maxLength = Math.max(maxLength, term.length());
+        }
+    }
+
+    // Prunes the nodes left without a term or children; maxLength stays an upper bound
+    void remove(String term) {
+        if (remove(root, term, 0)) {
+            size--;
+        }
+    }
+
+    private static boolean remove(Node node, String term, int depth) {
+        if (depth == term.length()) {
+            if (node.term == null) {
+                return false;
+            }
+            node.term = null;
+            return true;
+        }
+        Node child = node.child(term.charAt(depth));
+        if (child == null || !remove(child, term, depth + 1)) {
+            return false;
+        }
+        if (child.term == null && child.keys.length == 0) {
+            node.removeChild(term.charAt(depth));
+        }
+        return true;
+    }
+
+    void search(String query, int maxDistance, TermVisitor visitor) {
+        // rows[depth] is the distance row after consuming `depth` trie characters
+        int[][] rows = new int[maxLength + 1][query.length() + 1];
+        for (int i = 0; i <= query.length(); i++) {
+            rows[0][i] = i;
+        }
+        if (root.term != null && query.length() <= maxDistance) {
+            visitor.visit(root.term, query.length());
+        }
+        for (int i = 0; i < root.keys.length; i++) {
+            search(root.children[i], root.keys[i], 1, query, maxDistance, rows, visitor);
+        }
+    }
+
+    private static void search(Node node, char key, int depth, String query, int maxDistance, int[][] rows,
+            TermVisitor visitor) {
+        int[] previous = rows[depth - 1];
+        int[] row = rows[depth];
+        row[0] = depth;
+        int rowMin = depth;
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previous[i - 1] + (query.charAt(i - 1) == key ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(previous[i] + 1, row[i - 1] + 1));
+            rowMin = Math.min(rowMin, row[i]);
+        }
+
+        int distance = row[row.length - 1];
+        if (node.term != null && distance <= maxDistance) {
+            visitor.visit(node.term, distance);
+        }
+        if (rowMin <= maxDistance) {
+            for (int i = 0; i < node.keys.length; i++) {
+                search(node.children[i], node.keys[i], depth + 1, query, maxDistance, rows, visitor);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        root = new Node();
+        size = 0;
+        maxLength = 0;
+    }
+}
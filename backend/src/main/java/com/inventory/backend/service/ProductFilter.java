@@ -0,0 +1,108 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Filter predicate for {@link ProductService#listProducts}, compiled once per
+ * request. Query strings are lowered up front and the {@code inStock} branching
+ * is resolved before the per-product lambda runs, so matching a product does not
+ * allocate. The predicate is built from one {@link Condition} per filtered field
+ * so the query planner can drop the one its index already answers and reorder
+ * the rest.
+ */
+final class ProductFilter {
+    static final String NAME = "name";
+    static final String CATEGORY = "category";
+    static final String IN_STOCK = "inStock";
+    static final String UNIT_PRICE = "unitPrice";
+    static final String EXPIRATION_DATE = "expirationDate";
+
+    record Condition(String field, Predicate<Product> predicate) {
+    }
+
+    private ProductFilter() {
+    }
+
+    static Predicate<Product> compile(String name, String category, Boolean inStock) {
+        return compile(ProductQuery.of(name, category, inStock));
+    }
+
+    static Predicate<Product> compile(ProductQuery query) {
+        return chain(conditions(query));
+    }
+
+    static Predicate<Product> chain(List<Condition> conditions) {
+        Predicate<Product> filter = null;
+        for (Condition condition : conditions) {
+            filter = filter == null ? condition.predicate() : filter.and(condition.predicate());
+        }
+        return filter == null ? product -> true : filter;
+    }
+
+    static List<Condition> conditions(ProductQuery query) {
+        List<Condition> conditions = new ArrayList<>(5);
+        String name = query.name();
+        String category = query.category();
+        Boolean inStock = query.inStock();
+
+        if (name != null && !name.isEmpty()) {
+            char[] lowerName = name.toLowerCase().toCharArray();
+            conditions.add(new Condition(NAME, product -> containsLowerCase(product.getName(), lowerName)));
+        }
+        if (category != null && !category.isEmpty()) {
+            char[] lowerCategory = category.toLowerCase().toCharArray();
+            conditions.add(new Condition(CATEGORY,
+                    product -> containsLowerCase(product.getCategory(), lowerCategory)));
+        }
+        if (inStock != null) {
+            // In Stock means stock > 0, Out of Stock means stock = 0
+            conditions.add(new Condition(IN_STOCK, inStock
+                    ? product -> product.getStock() > 0
+                    : product -> product.getStock() == 0));
+        }
+        if (query.hasPriceRange()) {
+            BigDecimal minPrice = query.minPrice();
+            BigDecimal maxPrice = query.maxPrice();
+            conditions.add(new Condition(UNIT_PRICE, product -> {
+                BigDecimal unitPrice = product.getUnitPrice();
+                return (minPrice == null || unitPrice.compareTo(minPrice) >= 0)
+                        && (maxPrice == null || unitPrice.compareTo(maxPrice) <= 0);
+            }));
+        }
+        if (query.hasExpirationRange()) {
+            LocalDate expiresAfter = query.expiresAfter();
+            LocalDate expiresBefore = query.expiresBefore();
+            conditions.add(new Condition(EXPIRATION_DATE, product -> {
+                LocalDate expirationDate = product.getExpirationDate();
+                return expirationDate != null
+                        && (expiresAfter == null || expirationDate.isAfter(expiresAfter))
+                        && (expiresBefore == null || expirationDate.isBefore(expiresBefore));
+            }));
+        }
+        return conditions;
+    }
+
+    /**
+     * Equivalent to {@code value.toLowerCase().contains(new String(lowerQuery))}
+     * without copying {@code value}.
+     */
+    static boolean containsLowerCase(String value, char[] lowerQuery) {
+        int last = value.length() - lowerQuery.length;
+        for (int start = 0; start <= last; start++) {
+            int i = 0;
+            while (i < lowerQuery.length && Character.toLowerCase(value.charAt(start + i)) == lowerQuery[i]) {
+                i++;
+            }
+            if (i == lowerQuery.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
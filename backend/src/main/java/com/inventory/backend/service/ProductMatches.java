@@ -0,0 +1,84 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+
+/**
+ * Products that passed the {@link ProductFilter}, plus the facet counts over
+ * them. Both are filled by the same {@link #add} call, so facets cost no extra
+ * pass over the catalog. Instances merge for parallel streams.
+ */
+final class ProductMatches {
+    static final String CATEGORY_FACET = "category";
+    static final String IN_STOCK_FACET = "inStock";
+    static final Set<String> FACETS = Set.of(CATEGORY_FACET, IN_STOCK_FACET);
+
+    private final List<Product> products = new ArrayList<>();
+    private final Map<String, Long> categoryCounts;
+    private final boolean countStock;
+    private long inStockCount;
+    private long outOfStockCount;
+
+    private ProductMatches(Set<String> facets) {
+        categoryCounts = facets.contains(CATEGORY_FACET) ? new HashMap<>() : null;
+        countStock = facets.contains(IN_STOCK_FACET);
+    }
+
+    static Collector<Product, ?, ProductMatches> collector(Set<String> facets) {
+        return Collector.of(() -> new ProductMatches(facets), ProductMatches::add, ProductMatches::combine);
+    }
+
+    void add(Product product) {
+        products.add(product);
+        if (categoryCounts != null) {
+            categoryCounts.merge(product.getCategory(), 1L, Long::sum);
+        }
+        if (countStock) {
+            if (product.getStock() > 0) {
+                inStockCount++;
+            } else {
+                outOfStockCount++;
+            }
+        }
+    }
+
+    ProductMatches combine(ProductMatches other) {
+        products.addAll(other.products);
+        if (categoryCounts != null) {
+            other.categoryCounts.forEach((category, count) -> categoryCounts.merge(category, count, Long::sum));
+        }
+        inStockCount += other.inStockCount;
+        outOfStockCount += other.outOfStockCount;
+        return this;
+    }
+
+    List<Product> products() {
+        return products;
+    }
+
+    /** Counts per requested facet value, or {@code null} when no facet was requested. */
+    Map<String, Map<String, Long>> facets() {
+        if (categoryCounts == null && !countStock) {
+            return null;
+        }
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        if (categoryCounts != null) {
+            facets.put(CATEGORY_FACET, new TreeMap<>(categoryCounts));
+        }
+        if (countStock) {
+            Map<String, Long> stockCounts = new LinkedHashMap<>();
+            stockCounts.put("true", inStockCount);
+            stockCounts.put("false", outOfStockCount);
+            facets.put(IN_STOCK_FACET, stockCounts);
+        }
+        return facets;
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventory.backend.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filters of a {@link ProductService#listProducts} call, bound from the
+ * {@code GET /products} query parameters. Every filter is optional. Price bounds
+ * are inclusive, expiration bounds exclusive, and products without an expiration
+ * date never match an expiration filter. {@code facets} names the facet counts
+ * ({@code category}, {@code inStock}) to return with the page, and
+ * {@code explain} asks for the query plan when explaining is enabled.
+ * {@code snapshot} is the token of an earlier page, to read the store as it was
+ * then.
+ */
+public record ProductQuery(
+        String name,
+        String category,
+        Boolean inStock,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresBefore,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresAfter,
+        Set<String> facets,
+        Boolean explain,
+        Long snapshot) {
+
+    public ProductQuery {
+        facets = facets == null ? Set.of() : Set.copyOf(facets);
+    }
+
+    public static ProductQuery of(String name, String category, Boolean inStock) {
+        return new ProductQuery(name, category, inStock, null, null, null, null, null, null, null);
+    }
+
+    /** The same query with name and category as the filters match them: lower case, empty meaning none. */
+    public ProductQuery normalized() {
+        String normalizedName = name == null || name.isEmpty() ? null : name.toLowerCase();
+        String normalizedCategory = category == null || category.isEmpty() ? null : category.toLowerCase();
+        return new ProductQuery(normalizedName, normalizedCategory, inStock, minPrice, maxPrice, expiresBefore,
+                expiresAfter, facets, explain, snapshot);
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    public boolean hasExpirationRange() {
+        return expiresBefore != null || expiresAfter != null;
+    }
+}
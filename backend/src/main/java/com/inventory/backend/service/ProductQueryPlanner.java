@@ -0,0 +1,204 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.QueryPlan;
+import com.inventory.backend.repository.ProductStatistics;
+import com.inventory.backend.service.ProductFilter.Condition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Chooses how {@link ProductServiceImpl#listProducts} reads and orders products.
+ * Each filter's selectivity is estimated from {@link ProductStatistics}; the
+ * access path (a full scan, the category posting lists, the stock bitmap, or a
+ * range scan of the price or expiration index) is the one with the fewest
+ * estimated row reads, index reads costing more than sequential ones. The
+ * remaining filters run cheapest-per-rejected-row first, and a small page of a
+ * large result is taken with a bounded heap instead of a full sort (results are
+ * always ordered, by product ID when no sort is requested). While the indexes
+ * are still being built after a restore there are no statistics, and a fixed
+ * rule picks the access path instead.
+ * Reads of an earlier snapshot take the same access path to narrow the
+ * candidates and then filter their snapshot versions, or scan the whole
+ * snapshot when writes in flight make the index read inexact.
+ */
+final class ProductQueryPlanner {
+    // Cost of fetching one product through an index relative to one scanned product
+    static final double INDEX_ROW_COST = 3.0;
+    // Name substrings have no statistics, so assume one product in ten matches
+    static final double NAME_SELECTIVITY = 0.1;
+    // Top-K when the end of the requested page is at most this fraction of the matches
+    static final double TOP_K_MAX_FRACTION = 0.25;
+
+    enum AccessPath {
+        FULL_SCAN, CATEGORY_POSTINGS, STOCK_BITMAP, UNIT_PRICE_INDEX, EXPIRATION_DATE_INDEX, SNAPSHOT_SCAN
+    }
+
+    record Estimate(Condition condition, double selectivity, double cost) {
+
+        // Classic predicate ordering rank: evaluation cost per rejected product
+        double rank() {
+            return selectivity >= 1 ? Double.MAX_VALUE : cost / (1 - selectivity);
+        }
+    }
+
+    record Plan(AccessPath accessPath, List<String> categories, List<Estimate> filters, long catalogSize,
+            long estimatedRows, boolean topK, boolean sorted) {
+
+        List<Condition> conditions() {
+            return filters.stream().map(Estimate::condition).toList();
+        }
+
+        QueryPlan explain() {
+            List<QueryPlan.Filter> steps = filters.stream()
+                    .map(estimate -> new QueryPlan.Filter(estimate.condition().field(), estimate.selectivity()))
+                    .toList();
+            String sort = (sorted ? "" : "id ") + (topK ? "top-k" : "sort-then-page");
+            return new QueryPlan(accessPath.name(), catalogSize, estimatedRows, steps, sort);
+        }
+    }
+
+    private ProductQueryPlanner() {
+    }
+
+    static Plan plan(ProductQuery query, Pageable pageable, ProductStatistics statistics) {
+        List<Condition> conditions = ProductFilter.conditions(query);
+        boolean sorted = pageable.getSort().isSorted();
+        if (statistics == null) {
+            return ruleBasedPlan(query, conditions, sorted);
+        }
+
+        long catalogSize = statistics.productCount();
+        List<Estimate> estimates = new ArrayList<>(conditions.size());
+        double combinedSelectivity = 1;
+        for (Condition condition : conditions) {
+            Estimate estimate = estimate(condition, query, statistics);
+            estimates.add(estimate);
+            combinedSelectivity *= estimate.selectivity();
+        }
+
+        // Driving index: the indexed filter reading the fewest rows, if cheaper than scanning
+        Estimate driving = null;
+        double bestCost = catalogSize;
+        for (Estimate estimate : estimates) {
+            double cost = estimate.selectivity() * catalogSize * INDEX_ROW_COST;
+            if (accessPath(estimate.condition()) != AccessPath.FULL_SCAN && cost < bestCost) {
+                driving = estimate;
+                bestCost = cost;
+            }
+        }
+
+        List<Estimate> filters = new ArrayList<>(estimates);
+        filters.remove(driving);
+        filters.sort(Comparator.comparingDouble(Estimate::rank));
+
+        AccessPath accessPath = driving == null ? AccessPath.FULL_SCAN : accessPath(driving.condition());
+        List<String> categories = accessPath == AccessPath.CATEGORY_POSTINGS
+                ? matchingCategories(query.category(), statistics)
+                : List.of();
+        long estimatedRows = Math.round(catalogSize * combinedSelectivity);
+        long pageEnd = pageable.getOffset() + pageable.getPageSize();
+        boolean topK = pageEnd <= estimatedRows * TOP_K_MAX_FRACTION;
+        return new Plan(accessPath, categories, filters, catalogSize, estimatedRows, topK, sorted);
+    }
+
+    // The live index only narrows a snapshot read: the snapshot versions it yields go through every filter
+    static Plan snapshotPlan(Plan indexPlan, ProductQuery query) {
+        List<Estimate> filters = new ArrayList<>();
+        for (Condition condition : ProductFilter.conditions(query)) {
+            filters.add(new Estimate(condition, 1, cost(condition)));
+        }
+        filters.sort(Comparator.comparingDouble(Estimate::cost));
+        return new Plan(indexPlan.accessPath(), indexPlan.categories(), filters, indexPlan.catalogSize(),
+                indexPlan.estimatedRows(), indexPlan.topK(), indexPlan.sorted());
+    }
+
+    // Snapshots keep no indexes, so every filter runs over the snapshot's products
+    static Plan snapshotPlan(ProductQuery query, Pageable pageable) {
+        List<Estimate> filters = new ArrayList<>();
+        for (Condition condition : ProductFilter.conditions(query)) {
+            filters.add(new Estimate(condition, 1, cost(condition)));
+        }
+        filters.sort(Comparator.comparingDouble(Estimate::cost));
+        return new Plan(AccessPath.SNAPSHOT_SCAN, List.of(), filters, -1, -1, false, pageable.getSort().isSorted());
+    }
+
+    // Without statistics (indexes still building after a restore), a range filter drives the read, since the
+    // repository answers it by scanning until its index is built, and everything else is scanned
+    private static Plan ruleBasedPlan(ProductQuery query, List<Condition> conditions, boolean sorted) {
+        AccessPath accessPath = query.hasPriceRange() ? AccessPath.UNIT_PRICE_INDEX
+                : query.hasExpirationRange() ? AccessPath.EXPIRATION_DATE_INDEX
+                : AccessPath.FULL_SCAN;
+        List<Estimate> filters = new ArrayList<>(conditions.size());
+        for (Condition condition : conditions) {
+            if (accessPath == AccessPath.FULL_SCAN || accessPath(condition) != accessPath) {
+                filters.add(new Estimate(condition, 1, cost(condition)));
+            }
+        }
+        return new Plan(accessPath, List.of(), filters, -1, -1, false, sorted);
+    }
+
+    private static Estimate estimate(Condition condition, ProductQuery query, ProductStatistics statistics) {
+        double productCount = Math.max(statistics.productCount(), 1);
+        double selectivity = switch (condition.field()) {
+            case ProductFilter.CATEGORY -> matchingCategories(query.category(), statistics).stream()
+                    .mapToLong(category -> statistics.categoryCounts().get(category))
+                    .sum() / productCount;
+            case ProductFilter.IN_STOCK -> (query.inStock()
+                    ? statistics.inStockCount()
+                    : statistics.outOfStockCount()) / productCount;
+            case ProductFilter.UNIT_PRICE -> statistics.unitPrice().count() / productCount
+                    * statistics.unitPrice().fractionBetween(toDouble(query.minPrice()), toDouble(query.maxPrice()));
+            case ProductFilter.EXPIRATION_DATE -> statistics.expirationDate().count() / productCount
+                    * statistics.expirationDate().fractionBetween(toEpochDay(query.expiresAfter()),
+                            toEpochDay(query.expiresBefore()));
+            default -> NAME_SELECTIVITY;
+        };
+        return new Estimate(condition, Math.min(selectivity, 1), cost(condition));
+    }
+
+    // Relative cost of evaluating the condition on one product
+    private static double cost(Condition condition) {
+        return switch (condition.field()) {
+            case ProductFilter.IN_STOCK -> 1;
+            case ProductFilter.UNIT_PRICE, ProductFilter.EXPIRATION_DATE -> 2;
+            case ProductFilter.CATEGORY -> 3;
+            default -> 4;
+        };
+    }
+
+    private static AccessPath accessPath(Condition condition) {
+        return switch (condition.field()) {
+            case ProductFilter.CATEGORY -> AccessPath.CATEGORY_POSTINGS;
+            case ProductFilter.IN_STOCK -> AccessPath.STOCK_BITMAP;
+            case ProductFilter.UNIT_PRICE -> AccessPath.UNIT_PRICE_INDEX;
+            case ProductFilter.EXPIRATION_DATE -> AccessPath.EXPIRATION_DATE_INDEX;
+            default -> AccessPath.FULL_SCAN;
+        };
+    }
+
+    // Indexed categories containing the query, matching the category filter's semantics
+    private static List<String> matchingCategories(String category, ProductStatistics statistics) {
+        char[] lowerCategory = category.toLowerCase().toCharArray();
+        List<String> categories = new ArrayList<>();
+        for (String indexedCategory : statistics.categoryCounts().keySet()) {
+            if (ProductFilter.containsLowerCase(indexedCategory, lowerCategory)) {
+                categories.add(indexedCategory);
+            }
+        }
+        return categories;
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    private static Double toEpochDay(LocalDate date) {
+        return date == null ? null : (double) date.toEpochDay();
+    }
+}
@@ -1,7 +1,13 @@
 package com.inventory.backend.service;
 
+import com.inventory.backend.model.CoalescingStats;
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductChanges;
+import com.inventory.backend.model.ProductLookup;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.model.StockHistory;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -18,7 +24,23 @@ public interface ProductService {
 
     Product markProductInStock(Integer id, Integer quantity);
 
+    void decrementStock(Integer id, Integer quantity);
+
+    void setHotProduct(Integer id, boolean hot);
+
     Page<Product> listProducts(String name, String category, Boolean inStock, Pageable pageable);
 
+    Page<Product> listProducts(ProductQuery query, Pageable pageable);
+
+    CoalescingStats getListCoalescingStats();
+
+    List<ProductSearchResult> searchProducts(String query, int limit);
+
+    Optional<StockHistory> getStockHistory(Integer id, int days);
+
+    ProductChanges getChanges(long since, int limit);
+
+    ProductLookup lookupProducts(List<Integer> ids);
+
     void deleteProduct(Integer id);
 }
@@ -1,44 +1,72 @@
 package com.inventory.backend.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.stereotype.Service;
 
+import com.inventory.backend.model.CoalescingStats;
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductChanges;
+import com.inventory.backend.model.ProductLookup;
+import com.inventory.backend.model.ProductPage;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.model.QueryPlan;
+import com.inventory.backend.model.StockHistory;
 import com.inventory.backend.repository.ProductRepository;
 
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
-
 import java.util.Optional;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
-    private final Validator validator;
+    private final ProductValidator productValidator;
+
+    static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int MAX_HISTORY_DAYS = 365;
+    static final int MAX_CHANGES_LIMIT = 1000;
+    static final int MAX_LOOKUP_IDS = 1000;
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+
+    // Catalog size from which listProducts filters in parallel (see ListProductsBenchmark)
+    @Value("${inventory.products.parallel-threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}")
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    // With one processor a parallel stream only adds splitting overhead, whatever the catalog size
+    private int processors = Runtime.getRuntime().availableProcessors();
+
+    // Debug switch: lets GET /products?explain=true return the query plan
+    @Value("${inventory.query.explain-enabled:false}")
+    private boolean explainEnabled;
+
+    // Identical concurrent list queries share one computation
+    @Value("${inventory.products.coalesce-queries:true}")
+    private boolean coalesceQueries = true;
 
-    public ProductServiceImpl(ProductRepository productRepository, Validator validator) {
+    private final SingleFlight<ListKey, Page<Product>> listFlights = new SingleFlight<>();
+
+    private record ListKey(ProductQuery query, Pageable pageable) {
+    }
+
+    public ProductServiceImpl(ProductRepository productRepository, ProductValidator productValidator) {
         this.productRepository = productRepository;
-        this.validator = validator;
+        this.productValidator = productValidator;
     }
 
     @Override
     public Product createProduct(Product product) {
-        Set<ConstraintViolation<Product>> violations = validator.validate(product);
-        if (!violations.isEmpty()) {
-            String errorMessage = violations.stream()
-                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
-                    .collect(Collectors.joining("; "));
-
-            throw new IllegalArgumentException("Validation error: " + errorMessage);
-        }
+        productValidator.validate(product);
 
         return productRepository.save(product);
     }
@@ -52,6 +80,8 @@ public class ProductServiceImpl implements ProductService {
     public Product updateProduct(Integer id, Product productDetails) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product with ID " + id + " not found"));
+        // An update that keeps this stock must not undo sales made after the read
+        int readStock = existingProduct.getStock() == null ? 0 : existingProduct.getStock();
 
         existingProduct.setName(productDetails.getName());
         existingProduct.setCategory(productDetails.getCategory());
@@ -59,16 +89,9 @@ public class ProductServiceImpl implements ProductService {
         existingProduct.setExpirationDate(productDetails.getExpirationDate());
         existingProduct.setStock(productDetails.getStock());
 
-        Set<ConstraintViolation<Product>> violations = validator.validate(existingProduct);
-        if (!violations.isEmpty()) {
-            String errorMessage = violations.stream()
-                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
-                    .collect(Collectors.joining("; "));
+        productValidator.validate(existingProduct);
 
-            throw new IllegalArgumentException("Validation error: " + errorMessage);
-        }
-
-        return productRepository.save(existingProduct);
+        return productRepository.save(existingProduct, readStock);
     }
 
     @Override
@@ -93,31 +116,97 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.save(product);
     }
 
+    @Override
+    public void decrementStock(Integer id, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Decrement quantity must be greater than 0");
+        }
+        if (!productRepository.existsById(id)) {
+            throw new IllegalArgumentException("Product with ID " + id + " not found");
+        }
+        if (!productRepository.decrementStock(id, quantity)) {
+            throw new IllegalArgumentException("Insufficient stock for product with ID " + id);
+        }
+    }
+
+    @Override
+    public void setHotProduct(Integer id, boolean hot) {
+        if (!productRepository.existsById(id)) {
+            throw new IllegalArgumentException("Product with ID " + id + " not found");
+        }
+        productRepository.setHot(id, hot);
+    }
+
     @Override
     public Page<Product> listProducts(String name, String category, Boolean inStock, Pageable pageable) {
-        List<Product> allProducts = productRepository.findAll();
+        return listProducts(ProductQuery.of(name, category, inStock), pageable);
+    }
 
-        // Filtering Logic
-        List<Product> filteredProducts = allProducts.stream().filter(product -> {
-            boolean matchesName = (name == null || name.isEmpty())
-                    || product.getName().toLowerCase().contains(name.toLowerCase());
-            boolean matchesCategory = (category == null || category.isEmpty())
-                    || product.getCategory().toLowerCase().contains(category.toLowerCase());
-            boolean matchesInStock;
-            if (inStock == null) {
-                matchesInStock = true; // No filter, match all
-            } else if (inStock) {
-                matchesInStock = product.getStock() > 0; // Filter for In Stock (stock > 0)
-            } else {
-                matchesInStock = product.getStock() == 0; // Filter for Out of Stock (stock = 0)
+    @Override
+    public Page<Product> listProducts(ProductQuery query, Pageable pageable) {
+        if (query.minPrice() != null && query.maxPrice() != null
+                && query.minPrice().compareTo(query.maxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        for (String facet : query.facets()) {
+            if (!ProductMatches.FACETS.contains(facet)) {
+                throw new IllegalArgumentException("Unknown facet: " + facet);
             }
-            return matchesName && matchesCategory && matchesInStock;
-        }).collect(Collectors.toList());
+        }
+
+        if (!coalesceQueries) {
+            return findProducts(query, pageable);
+        }
+        return listFlights.run(new ListKey(query.normalized(), pageable), productRepository.lastVersion(),
+                () -> findProducts(query, pageable));
+    }
+
+    @Override
+    public CoalescingStats getListCoalescingStats() {
+        long requests = listFlights.calls();
+        long coalesced = listFlights.sharedCalls();
+        return new CoalescingStats(requests, coalesced, requests == 0 ? 0 : (double) coalesced / requests,
+                listFlights.inFlight());
+    }
+
+    private Page<Product> findProducts(ProductQuery query, Pageable pageable) {
+        // Later pages read the snapshot of the first one, which reads the live indexes
+        long snapshot = query.snapshot() != null ? query.snapshot() : productRepository.openSnapshot();
+        // The planner picks the access path and filter order from the index statistics
+        ProductQueryPlanner.Plan plan = ProductQueryPlanner.plan(query, pageable, productRepository.getStatistics());
+        List<Product> allProducts = null;
+        boolean indexed = plan.accessPath() != ProductQueryPlanner.AccessPath.FULL_SCAN;
+        if (query.snapshot() == null || indexed) {
+            List<Product> candidates = findCandidates(plan, query, snapshot);
+            if (query.snapshot() == null && productRepository.lastVersion() == snapshot) {
+                allProducts = candidates;
+            } else if (indexed) {
+                // A later page, or a write landed while the indexes were read: the live index narrows the
+                // candidates, adding the products changed since the snapshot was taken
+                allProducts = productRepository.findAllAsOf(snapshot, candidates);
+                plan = ProductQueryPlanner.snapshotPlan(plan, query);
+            }
+        }
+        if (allProducts == null) {
+            // No index narrows the query, or the changes since the snapshot are not known: read all of it
+            plan = ProductQueryPlanner.snapshotPlan(query, pageable);
+            allProducts = findCandidates(plan, query, snapshot);
+        }
+
+        // Filtering Logic
+        Predicate<Product> filter = ProductFilter.chain(plan.conditions());
+        Stream<Product> candidates = allProducts.size() >= parallelThreshold && processors > 1
+                ? allProducts.parallelStream()
+                : allProducts.stream();
+        // Facet counts are taken in the same pass that collects the matches
+        ProductMatches matches = candidates.filter(filter).collect(ProductMatches.collector(query.facets()));
+        List<Product> filteredProducts = matches.products();
+        int totalMatches = filteredProducts.size();
 
         // Sorting Logic
+        Comparator<Product> finalComparator = null;
         if (pageable.getSort().isSorted()) {
             List<Order> orders = pageable.getSort().toList();
-            Comparator<Product> finalComparator = null;
 
             for (Order order : orders) {
                 Comparator<Product> currentComparator = null;
@@ -153,10 +242,15 @@ public class ProductServiceImpl implements ProductService {
                     }
                 }
             }
+        }
 
-            if (finalComparator != null) {
-                filteredProducts.sort(finalComparator);
-            }
+        // Ties, and unsorted queries, go by ID, so the order does not depend on the access path
+        finalComparator = finalComparator == null ? BY_ID : finalComparator.thenComparing(BY_ID);
+        if (plan.topK()) {
+            filteredProducts = firstSorted(filteredProducts, finalComparator,
+                    (int) Math.min(pageable.getOffset() + pageable.getPageSize(), totalMatches));
+        } else {
+            filteredProducts.sort(finalComparator);
         }
 
         // Pagination Logic
@@ -170,7 +264,129 @@ public class ProductServiceImpl implements ProductService {
             pagedProducts = filteredProducts.subList(start, end);
         }
 
-        return new PageImpl<>(pagedProducts, pageable, filteredProducts.size());
+        QueryPlan explain = explainEnabled && Boolean.TRUE.equals(query.explain()) ? plan.explain() : null;
+        return new ProductPage(pagedProducts, pageable, totalMatches, matches.facets(), explain, snapshot);
+    }
+
+    private List<Product> findCandidates(ProductQueryPlanner.Plan plan, ProductQuery query, long snapshot) {
+        return switch (plan.accessPath()) {
+            case CATEGORY_POSTINGS -> productRepository.findByCategoryIn(plan.categories());
+            case STOCK_BITMAP -> productRepository.findByInStock(query.inStock());
+            case UNIT_PRICE_INDEX -> productRepository.findByUnitPriceBetween(query.minPrice(), query.maxPrice());
+            case EXPIRATION_DATE_INDEX -> productRepository.findByExpirationDateBetween(query.expiresAfter(),
+                    query.expiresBefore());
+            case FULL_SCAN -> productRepository.findAll();
+            case SNAPSHOT_SCAN -> productRepository.findAllAsOf(snapshot);
+        };
+    }
+
+    // The `count` smallest products in order, through a bounded max-heap instead of a full sort
+    private static List<Product> firstSorted(List<Product> products, Comparator<Product> comparator, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Product> heap = new PriorityQueue<>(count + 1, comparator.reversed());
+        for (Product product : products) {
+            if (heap.size() < count) {
+                heap.add(product);
+            } else if (comparator.compare(product, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(product);
+            }
+        }
+        List<Product> first = new ArrayList<>(heap);
+        first.sort(comparator);
+        return first;
+    }
+
+    @Override
+    public List<ProductSearchResult> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return productRepository.search(query, limit);
+    }
+
+    @Override
+    public Optional<StockHistory> getStockHistory(Integer id, int days) {
+        if (days <= 0 || days > MAX_HISTORY_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_HISTORY_DAYS);
+        }
+        Instant since = Instant.now().minus(Duration.ofDays(days));
+        return productRepository.findStockHistory(id)
+                .map(history -> history.withSellThrough(sellThrough(history, since, days)));
+    }
+
+    @Override
+    public ProductChanges getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Since must not be negative");
+        }
+        if (limit <= 0 || limit > MAX_CHANGES_LIMIT) {
+            throw new IllegalArgumentException("Changes limit must be between 1 and " + MAX_CHANGES_LIMIT);
+        }
+        return productRepository.findChangesSince(since, limit);
+    }
+
+    @Override
+    public ProductLookup lookupProducts(List<Integer> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("Lookup takes between 1 and " + MAX_LOOKUP_IDS + " IDs");
+        }
+        for (Integer id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("Lookup IDs must not be null");
+            }
+        }
+        List<Product> products = productRepository.findAllById(ids);
+        ProductLookup.Result[] results = new ProductLookup.Result[ids.size()];
+        int found = 0;
+        for (int i = 0; i < results.length; i++) {
+            Product product = products.get(i);
+            results[i] = new ProductLookup.Result(ids.get(i), product != null, product);
+            found += product != null ? 1 : 0;
+        }
+        return new ProductLookup(List.of(results), found);
+    }
+
+    // Units sold over the units available in the window: stock at its start plus units received
+    static StockHistory.SellThrough sellThrough(StockHistory history, Instant since, int days) {
+        long received = 0;
+        long sold = 0;
+        // A bucket holds the movements from its start to the end of its day or the oldest kept movement
+        Instant oldestMovement = history.movements().isEmpty() ? Instant.MAX : history.movements().get(0).timestamp();
+        for (StockHistory.Bucket bucket : history.buckets()) {
+            if (!bucket.start().isBefore(since)) {
+                received += bucket.received();
+                sold += bucket.sold();
+                continue;
+            }
+            Instant end = bucket.start().plus(Duration.ofDays(1));
+            end = end.isAfter(oldestMovement) ? oldestMovement : end;
+            if (end.isAfter(since)) {
+                // Straddles the window start: count the share of the bucket's span inside the window
+                double share = (double) Duration.between(since, end).toMillis()
+                        / Math.max(1, Duration.between(bucket.start(), end).toMillis());
+                received += Math.round(bucket.received() * share);
+                sold += Math.round(bucket.sold() * share);
+            }
+        }
+        for (StockHistory.Movement movement : history.movements()) {
+            if (!movement.timestamp().isBefore(since)) {
+                if (movement.delta() > 0) {
+                    received += movement.delta();
+                } else {
+                    sold -= movement.delta();
+                }
+            }
+        }
+        long startingStock = history.stock() - received + sold;
+        long available = startingStock + received;
+        double rate = available > 0 ? (double) sold / available : 0;
+        return new StockHistory.SellThrough(days, received, sold, rate);
     }
 
     @Override
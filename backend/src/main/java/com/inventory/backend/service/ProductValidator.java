@@ -0,0 +1,106 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The bean validation constraints of {@link Product}, checked directly instead
+ * of through the reflective Jakarta validator. Each check follows the
+ * Hibernate Validator implementation of its annotation ({@code @NotBlank} trims
+ * like {@link String#trim()}, {@code @FutureOrPresent} compares with today in
+ * the system time zone), so the same products fail with the same messages;
+ * {@code ProductValidatorTests} compares both. A valid product is checked
+ * without allocating: today's date is cached until midnight and the error
+ * message is only built on failure. Keep it in sync with the annotations on
+ * {@link Product}.
+ */
+@Component
+public class ProductValidator {
+    private static final BigDecimal MIN_UNIT_PRICE = new BigDecimal("0.01");
+    private static final String PREFIX = "Validation error: ";
+
+    private record Today(LocalDate date, long untilMillis) {
+    }
+
+    private volatile Today today = today(System.currentTimeMillis());
+
+    /** Throws {@link IllegalArgumentException} listing every violated constraint. */
+    public void validate(Product product) {
+        LocalDate expirationDate = product.getExpirationDate();
+        boolean expired = expirationDate != null && expirationDate.isBefore(today());
+        if (!isBlank(product.getName()) && !isBlank(product.getCategory())
+                && isValidUnitPrice(product.getUnitPrice()) && !expired
+                && product.getStock() != null && product.getStock() >= 0) {
+            return;
+        }
+
+        StringBuilder errors = new StringBuilder(PREFIX);
+        if (isBlank(product.getName())) {
+            append(errors, "name: Name is required");
+        }
+        if (isBlank(product.getCategory())) {
+            append(errors, "category: Category is required");
+        }
+        if (product.getUnitPrice() == null) {
+            append(errors, "unitPrice: Unit Price is required");
+        } else if (product.getUnitPrice().compareTo(MIN_UNIT_PRICE) < 0) {
+            append(errors, "unitPrice: Unit Price must be greater than 0");
+        }
+        if (expired) {
+            append(errors, "expirationDate: Expiration Date can not be in the past");
+        }
+        if (product.getStock() == null) {
+            append(errors, "stock: Stock is required");
+        } else if (product.getStock() < 0) {
+            append(errors, "stock: Stock can not be negative");
+        }
+        throw new IllegalArgumentException(errors.toString());
+    }
+
+    // String.trim() drops every char up to ' ', so a value is blank unless it has a char above that
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidUnitPrice(BigDecimal unitPrice) {
+        return unitPrice != null && unitPrice.compareTo(MIN_UNIT_PRICE) >= 0;
+    }
+
+    private static void append(StringBuilder errors, String error) {
+        if (errors.length() > PREFIX.length()) {
+            errors.append("; ");
+        }
+        errors.append(error);
+    }
+
+    private LocalDate today() {
+        Today current = today;
+        long now = System.currentTimeMillis();
+        if (now >= current.untilMillis()) {
+            current = today(now);
+            today = current;
+        }
+        return current.date();
+    }
+
+    private static Today today(long nowMillis) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+        long untilMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Today(date, untilMillis);
+    }
+}
@@ -0,0 +1,17 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.Reservation;
+import com.inventory.backend.model.StockAvailability;
+
+import java.util.Optional;
+
+public interface ReservationService {
+    Reservation reserve(Integer productId, int quantity, int ttlSeconds);
+
+    Product confirm(Integer productId, long reservationId);
+
+    void release(Integer productId, long reservationId);
+
+    Optional<StockAvailability> getAvailability(Integer productId);
+}
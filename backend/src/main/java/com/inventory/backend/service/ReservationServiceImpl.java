@@ -0,0 +1,111 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.Reservation;
+import com.inventory.backend.model.StockAvailability;
+import com.inventory.backend.repository.ProductRepository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds stock for checkouts. The held units live in the repository's stock
+ * ledger next to the stock itself; this service tracks the open reservations
+ * and expires abandoned ones through a {@link TimingWheel} ticking once a
+ * second. A reservation ends exactly once: whichever of confirm, release and
+ * expiry removes it from the open reservations acts on the stock.
+ */
+@Service
+public class ReservationServiceImpl implements ReservationService {
+    static final long TICK_MILLIS = 1_000;
+    // 512 one-second slots, so holds up to ~8.5 minutes never wait out a full rotation
+    static final int WHEEL_SLOTS = 512;
+    static final int MAX_TTL_SECONDS = 3_600;
+
+    private final ProductRepository productRepository;
+    private final Map<Long, TimingWheel.Timeout<Reservation>> reservations = new ConcurrentHashMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final TimingWheel<Reservation> expirations = new TimingWheel<>(TICK_MILLIS, WHEEL_SLOTS,
+            System.currentTimeMillis());
+
+    public ReservationServiceImpl(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public Reservation reserve(Integer productId, int quantity, int ttlSeconds) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be greater than 0");
+        }
+        if (ttlSeconds <= 0 || ttlSeconds > MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("Reservation TTL must be between 1 and " + MAX_TTL_SECONDS + " seconds");
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new IllegalArgumentException("Product with ID " + productId + " not found");
+        }
+        if (!productRepository.reserveStock(productId, quantity)) {
+            throw new IllegalArgumentException("Insufficient stock for product with ID " + productId);
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1_000L;
+        Reservation reservation = new Reservation(reservationIds.incrementAndGet(), productId, quantity,
+                Instant.ofEpochMilli(expiresAt));
+        reservations.put(reservation.id(), expirations.schedule(reservation, expiresAt));
+        return reservation;
+    }
+
+    @Override
+    public Product confirm(Integer productId, long reservationId) {
+        Reservation reservation = take(productId, reservationId);
+        return productRepository.confirmStock(productId, reservation.quantity());
+    }
+
+    @Override
+    public void release(Integer productId, long reservationId) {
+        Reservation reservation = take(productId, reservationId);
+        productRepository.releaseStock(productId, reservation.quantity());
+    }
+
+    @Override
+    public Optional<StockAvailability> getAvailability(Integer productId) {
+        return productRepository.findStockAvailability(productId);
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void expireReservations() {
+        expireReservations(System.currentTimeMillis());
+    }
+
+    // Releases the holds whose deadline passed by nowMillis, returns how many
+    int expireReservations(long nowMillis) {
+        int expired = 0;
+        for (Reservation reservation : expirations.advance(nowMillis)) {
+            if (reservations.remove(reservation.id()) != null) {
+                productRepository.releaseStock(reservation.productId(), reservation.quantity());
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    int openReservations() {
+        return reservations.size();
+    }
+
+    // Ends the reservation for the caller, or fails if it already ended
+    private Reservation take(Integer productId, long reservationId) {
+        TimingWheel.Timeout<Reservation> timeout = reservations.get(reservationId);
+        if (timeout == null || !timeout.payload().productId().equals(productId)
+                || !reservations.remove(reservationId, timeout)) {
+            throw new IllegalArgumentException("Reservation with ID " + reservationId + " not found");
+        }
+        expirations.cancel(timeout);
+        return timeout.payload();
+    }
+}
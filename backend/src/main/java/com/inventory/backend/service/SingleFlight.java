@@ -0,0 +1,88 @@
+package com.inventory.backend.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent calls with equal keys share one in-flight
+ * computation instead of each running it. A call only joins a computation that
+ * started at the same store version it sees, so it never gets a result from
+ * before a write that finished before the call began; otherwise it runs its own
+ * and later calls join that one instead.
+ */
+final class SingleFlight<K, V> {
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    private static final class Flight<V> {
+        final long version;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Flight(long version) {
+            this.version = version;
+        }
+    }
+
+    V run(K key, long version, Supplier<V> computation) {
+        calls.increment();
+        Flight<V> own = new Flight<>(version);
+        while (true) {
+            Flight<V> flight = flights.putIfAbsent(key, own);
+            if (flight == null) {
+                break;
+            }
+            if (flight.version == version) {
+                shared.increment();
+                return join(flight);
+            }
+            if (flights.replace(key, flight, own)) {
+                break;
+            }
+        }
+
+        V result;
+        try {
+            result = computation.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, own);
+            own.result.completeExceptionally(e);
+            throw e;
+        }
+        // Removed before completing, so only calls that overlapped the computation share it
+        flights.remove(key, own);
+        own.result.complete(result);
+        return result;
+    }
+
+    long calls() {
+        return calls.sum();
+    }
+
+    long sharedCalls() {
+        return shared.sum();
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private static <V> V join(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            // Joined calls fail like the one that ran the computation
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
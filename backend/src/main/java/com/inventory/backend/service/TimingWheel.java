@@ -0,0 +1,114 @@
+package com.inventory.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a ring of slots, each a doubly linked list of timeouts
+ * that fall on that slot's tick modulo the ring size. Scheduling and cancelling
+ * are O(1); each tick only visits the timeouts hashed to its slot, so the cost
+ * of outstanding timeouts does not grow with how many there are in total.
+ * Timeouts further out than one rotation stay in their slot until the rotation
+ * that reaches their deadline.
+ */
+final class TimingWheel<T> {
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[] slots;
+    private final int mask;
+    private long processedTick;
+    private int size;
+
+    static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        private boolean scheduled = true;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T payload() {
+            return payload;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int slotCount, long startMillis) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = new Timeout[slotCount];
+        this.mask = slotCount - 1;
+    }
+
+    /** Schedules {@code payload} to expire on the first tick at or after {@code deadlineMillis}. */
+    synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        // Rounded up, so a timeout never fires before its deadline
+        long deadlineTick = Math.max(-Math.floorDiv(startMillis - deadlineMillis, tickMillis), processedTick + 1);
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        int slot = (int) (deadlineTick & mask);
+        timeout.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].previous = timeout;
+        }
+        slots[slot] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /** Returns false if the timeout already expired or was cancelled. */
+    synchronized boolean cancel(Timeout<T> timeout) {
+        if (!timeout.scheduled) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /** Runs every tick up to {@code nowMillis} and returns the payloads that expired, oldest tick first. */
+    synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (processedTick < targetTick && size > 0) {
+            processedTick++;
+            Timeout<T> timeout = slots[(int) (processedTick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineTick <= processedTick) {
+                    unlink(timeout);
+                    expired.add(timeout.payload);
+                }
+                timeout = next;
+            }
+        }
+        // Nothing left to expire, skip the empty ticks in one step
+        processedTick = Math.max(processedTick, targetTick);
+        return expired;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        int slot = (int) (timeout.deadlineTick & mask);
+        if (timeout.previous == null) {
+            slots[slot] = timeout.next;
+        } else {
+            timeout.previous.next = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.scheduled = false;
+        size--;
+    }
+}
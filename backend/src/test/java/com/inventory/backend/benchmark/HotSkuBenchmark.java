@@ -0,0 +1,67 @@
+package com.inventory.backend.benchmark;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 64 threads selling one unit at a time of the same product, through the
+ * regular per-product path (ledger CAS under the product's lock, then a save)
+ * vs the striped counter of a product flagged hot.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="HotSkuBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class HotSkuBenchmark {
+    private static final int STOCK = 2_000_000_000;
+
+    @Param({ "regular", "hot" })
+    private String mode;
+
+    private ProductRepositoryImpl productRepository;
+    private Integer productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        productId = productRepository.save(new Product("Flash Sale Console", "Electronics",
+                new BigDecimal("299.99"), null, STOCK)).getId();
+        productRepository.setHot(productId, "hot".equals(mode));
+    }
+
+    // Refill so no iteration runs out of stock
+    @Setup(Level.Iteration)
+    public void refill() {
+        Product product = productRepository.findById(productId).get();
+        product.setStock(STOCK);
+        productRepository.save(product);
+    }
+
+    @Benchmark
+    public boolean decrementOneUnit() {
+        return productRepository.decrementStock(productId, 1);
+    }
+}
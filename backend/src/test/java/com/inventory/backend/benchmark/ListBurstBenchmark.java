@@ -0,0 +1,117 @@
+package com.inventory.backend.benchmark;
+
+import com.inventory.backend.model.CoalescingStats;
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+import com.inventory.backend.service.ProductQuery;
+import com.inventory.backend.service.ProductServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A dashboard refresh burst: 32 threads issuing the default product page and
+ * the three metrics queries every dashboard tab sends, against a 100k catalog,
+ * with identical concurrent queries coalesced or each run on its own. Besides
+ * throughput, each iteration prints the process CPU time per request and the
+ * coalescing rate.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="ListBurstBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ListBurstBenchmark {
+    private static final String[] CATEGORIES = { "Electronics", "Clothing", "Food" };
+    private static final int CATALOG_SIZE = 100_000;
+
+    private static final ProductQuery[] QUERIES = {
+            ProductQuery.of(null, null, null),
+            new ProductQuery(null, null, null, null, null, null, null, Set.of("category", "inStock"), null, null),
+            ProductQuery.of(null, null, false),
+            new ProductQuery(null, null, null, null, null, LocalDate.of(2027, 1, 1), null, null, null, null) };
+    private static final Pageable[] PAGES = {
+            PageRequest.of(0, 10, Sort.by("name")), PageRequest.of(0, 1), PageRequest.of(0, 1),
+            PageRequest.of(0, 1) };
+
+    @Param({ "coalesced", "independent" })
+    private String mode;
+
+    private ProductServiceImpl productService;
+    private final LongAdder requests = new LongAdder();
+    private long cpuNanosAtStart;
+    private long requestsAtStart;
+    private CoalescingStats statsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            LocalDate expirationDate = i % 2 == 0 ? null : LocalDate.of(2026, 11, 1).plusDays(i % 500);
+            productRepository.save(new Product("Product " + i, CATEGORIES[i % CATEGORIES.length],
+                    new BigDecimal("9.99"), expirationDate, i % 7));
+        }
+        productService = new ProductServiceImpl(productRepository, null);
+        ReflectionTestUtils.setField(productService, "coalesceQueries", "coalesced".equals(mode));
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        cpuNanosAtStart = processCpuNanos();
+        requestsAtStart = requests.sum();
+        statsAtStart = productService.getListCoalescingStats();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportIteration() {
+        long iterationRequests = requests.sum() - requestsAtStart;
+        CoalescingStats stats = productService.getListCoalescingStats();
+        long coalesced = stats.coalesced() - statsAtStart.coalesced();
+        System.out.printf("  [%s] CPU per request: %.3f ms, coalesced: %.1f%% of %d requests%n", mode,
+                (processCpuNanos() - cpuNanosAtStart) / 1e6 / Math.max(iterationRequests, 1),
+                100.0 * coalesced / Math.max(iterationRequests, 1), iterationRequests);
+    }
+
+    @Benchmark
+    public Page<Product> dashboardQuery() {
+        int query = ThreadLocalRandom.current().nextInt(QUERIES.length);
+        Page<Product> page = productService.listProducts(QUERIES[query], PAGES[query]);
+        requests.increment();
+        return page;
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+}
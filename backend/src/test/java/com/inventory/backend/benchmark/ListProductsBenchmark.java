@@ -0,0 +1,78 @@
+package com.inventory.backend.benchmark;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+import com.inventory.backend.service.ProductServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeps catalog size for sequential vs parallel filtering in
+ * {@code ProductServiceImpl.listProducts}. The smallest {@code catalogSize} where
+ * {@code parallel} wins is the value for {@code inventory.products.parallel-threshold}.
+ * On a single processor {@code parallel} never wins, which is why the service
+ * skips the parallel stream there.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="ListProductsBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListProductsBenchmark {
+    private static final String[] CATEGORIES = { "Electronics", "Clothing", "Food" };
+
+    @Param({ "1000", "10000", "25000", "50000", "100000", "500000", "1000000" })
+    private int catalogSize;
+
+    @Param({ "sequential", "parallel" })
+    private String mode;
+
+    private ProductServiceImpl productService;
+    private final Pageable pageable = PageRequest.of(0, 10);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        for (int i = 0; i < catalogSize; i++) {
+            productRepository.save(new Product("Product " + i, CATEGORIES[i % CATEGORIES.length],
+                    new BigDecimal("9.99"), null, i % 7));
+        }
+        productService = new ProductServiceImpl(productRepository, null);
+        ReflectionTestUtils.setField(productService, "parallelThreshold",
+                "parallel".equals(mode) ? 0 : Integer.MAX_VALUE);
+        // Measure the parallel stream even where the service would skip it for lack of processors
+        ReflectionTestUtils.setField(productService, "processors", 2);
+    }
+
+    @Benchmark
+    public Page<Product> filterByNameCategoryAndStock() {
+        return productService.listProducts("product 1", "elec", true, pageable);
+    }
+
+    @Benchmark
+    public Page<Product> filterByStockOnly() {
+        return productService.listProducts(null, null, false, pageable);
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventory.backend.benchmark;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution (p50..p99.9 in the sample-time output) of
+ * GET /products/search at catalog sizes up to 1M generated product names.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductSearchBenchmark -jvmArgs -Xmx4g"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+    private static final String[] BRANDS = { "Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark", "Wayne",
+            "Wonka", "Soylent", "Tyrell", "Cyberdyne", "Aperture", "Vandelay", "Oscorp", "Monarch", "Gringotts" };
+    private static final String[] ADJECTIVES = { "Wireless", "Bluetooth", "Organic", "Leather", "Cotton", "Wool",
+            "Mechanical", "Portable", "Compact", "Premium", "Classic", "Vintage", "Smart", "Frozen", "Dark",
+            "Noise", "Cancelling", "Running", "Waterproof", "Ergonomic", "Stainless", "Bamboo", "Ceramic" };
+    private static final String[] NOUNS = { "Earbuds", "Speaker", "Wallet", "Cap", "Scarf", "Chocolate", "Butter",
+            "Tablet", "Headphones", "Mouse", "Keyboard", "Camera", "Socks", "Cereal", "Coffee", "Webcam", "Sweater",
+            "Trunks", "Berries", "Tracker", "Belt", "Pasta", "Syrup", "Shorts", "Monitor", "Charger", "Backpack",
+            "Bottle", "Jacket", "Lamp", "Blender", "Kettle", "Router", "Drone", "Watch", "Sneakers", "Gloves" };
+    private static final String[] QUERIES = { "hedphones", "wirless earbuds", "mechanicl keybord", "choclate",
+            "acme speakr", "stainles botle", "globex x1234", "portble chargr", "vintge lether wallet", "kettel" };
+
+    @Param({ "10000", "100000", "1000000" })
+    private int catalogSize;
+
+    private ProductRepositoryImpl productRepository;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < catalogSize; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " X" + random.nextInt(20_000);
+            productRepository.save(new Product(name, "Electronics", new BigDecimal("19.99"), null, 10));
+        }
+    }
+
+    @Benchmark
+    public List<ProductSearchResult> search() {
+        return productRepository.search(QUERIES[next++ % QUERIES.length], 20);
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.backend.config.ProductJsonConfig;
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a product page with and without the pre-serialized
+ * product cache. Run with the GC profiler to see allocation per request:
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductSerializationBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSerializationBenchmark {
+    @Param({ "10", "100", "1000" })
+    private int pageSize;
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper cachingMapper;
+    private Page<Product> page;
+    private Product product;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ProductJsonCache jsonCache = new ProductJsonCache();
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(jsonCache);
+        List<Product> products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            products.add(productRepository.save(new Product("Product " + i, "Food", new BigDecimal("12.49"),
+                    LocalDate.of(2027, 1, 1).plusDays(i), i)));
+        }
+        page = new PageImpl<>(products, PageRequest.of(0, pageSize), pageSize);
+        product = products.get(0);
+
+        plainMapper = JsonMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        cachingMapper = JsonMapper.builder().addModule(new JavaTimeModule())
+                .addModule(new ProductJsonConfig().productJsonCacheModule(jsonCache))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+    @Benchmark
+    public int pageUncached() throws IOException {
+        return write(plainMapper, page);
+    }
+
+    @Benchmark
+    public int pageCached() throws IOException {
+        return write(cachingMapper, page);
+    }
+
+    @Benchmark
+    public int productUncached() throws IOException {
+        return write(plainMapper, product);
+    }
+
+    @Benchmark
+    public int productCached() throws IOException {
+        return write(cachingMapper, product);
+    }
+
+    private int write(ObjectMapper mapper, Object value) throws IOException {
+        out.reset();
+        mapper.writeValue(out, value);
+        return out.size();
+    }
+}
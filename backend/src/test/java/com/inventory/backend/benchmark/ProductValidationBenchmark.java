@@ -0,0 +1,103 @@
+package com.inventory.backend.benchmark;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.service.ProductValidator;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of validating one product write: the reflective Jakarta validator with
+ * the error string built the way the service used to, against the precompiled
+ * {@link ProductValidator}. Run with the GC profiler to see allocation per call:
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductValidationBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductValidationBenchmark {
+    private ValidatorFactory validatorFactory;
+    private Validator jakartaValidator;
+    private ProductValidator productValidator;
+    private Product validProduct;
+    private Product invalidProduct;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        jakartaValidator = validatorFactory.getValidator();
+        productValidator = new ProductValidator();
+        validProduct = new Product("Organic Rice 1kg", "Food", new BigDecimal("5.49"),
+                LocalDate.now().plusDays(90), 120);
+        invalidProduct = new Product(" ", "Food", BigDecimal.ZERO, LocalDate.now().minusDays(1), -1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public String jakartaValid() {
+        return jakartaErrors(validProduct);
+    }
+
+    @Benchmark
+    public String precompiledValid() {
+        return precompiledErrors(validProduct);
+    }
+
+    @Benchmark
+    public String jakartaInvalid() {
+        return jakartaErrors(invalidProduct);
+    }
+
+    @Benchmark
+    public String precompiledInvalid() {
+        return precompiledErrors(invalidProduct);
+    }
+
+    private String jakartaErrors(Product product) {
+        Set<ConstraintViolation<Product>> violations = jakartaValidator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation error: " + violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private String precompiledErrors(Product product) {
+        try {
+            productValidator.validate(product);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+}
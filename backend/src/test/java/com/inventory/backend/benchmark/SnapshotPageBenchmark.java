@@ -0,0 +1,90 @@
+package com.inventory.backend.benchmark;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductPage;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+import com.inventory.backend.service.ProductQuery;
+import com.inventory.backend.service.ProductServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Second page of a selective price-range query (about 1% of the catalog) read
+ * through the snapshot token of the first page, with some products changed
+ * since: through the price index plus the changed products, vs scanning every
+ * product's snapshot version as later pages did before.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="SnapshotPageBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotPageBenchmark {
+    private static final BigDecimal MIN_PRICE = new BigDecimal("10.00");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("19.99");
+
+    @Param({ "10000", "100000" })
+    private int catalogSize;
+
+    private ProductRepositoryImpl productRepository;
+    private ProductServiceImpl productService;
+    private ProductQuery snapshotQuery;
+    private long snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        for (int i = 0; i < catalogSize; i++) {
+            productRepository.save(new Product("Product " + i, "Food", BigDecimal.valueOf(i % 1000 * 100, 2),
+                    null, i % 7));
+        }
+        productService = new ProductServiceImpl(productRepository, null);
+        ProductQuery query = new ProductQuery(null, null, null, MIN_PRICE, MAX_PRICE, null, null, null, null, null);
+        ProductPage firstPage = (ProductPage) productService.listProducts(query, PageRequest.of(0, 20));
+        snapshot = firstPage.getSnapshot();
+        snapshotQuery = new ProductQuery(null, null, null, MIN_PRICE, MAX_PRICE, null, null, null, null, snapshot);
+        // Writes after the first page, which the snapshot has to see past
+        for (int id = 1; id <= 100; id++) {
+            Product product = productRepository.findById(id).orElseThrow();
+            product.setStock(product.getStock() + 1);
+            productRepository.save(product);
+        }
+    }
+
+    @Benchmark
+    public Page<Product> laterPageThroughIndex() {
+        return productService.listProducts(snapshotQuery, PageRequest.of(1, 20));
+    }
+
+    @Benchmark
+    public List<Product> laterPageScanningSnapshot() {
+        return productRepository.findAllAsOf(snapshot).stream()
+                .filter(product -> product.getUnitPrice().compareTo(MIN_PRICE) >= 0
+                        && product.getUnitPrice().compareTo(MAX_PRICE) <= 0)
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .skip(20)
+                .limit(20)
+                .toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.inventory.backend.benchmark;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+import com.inventory.backend.repository.ProductSnapshot;
+import com.inventory.backend.service.ProductServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the repository to become queryable at startup: seeding product by
+ * product (what DataLoader did) vs restoring a memory-mapped snapshot. Restore
+ * stores the products, version chains and change index and returns, leaving
+ * the search trie, sorted price, expiration and category indexes and stock
+ * bitmap to a background thread; {@code restoreUntilFirstQuery} adds the first
+ * sorted, filtered page, answered by a scan while the indexes are built, which
+ * is the time until the first list request can be answered.
+ * {@code restoreUntilIndexed} waits for the indexes (and searches) instead.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="StartupLoadBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupLoadBenchmark {
+    @Param({ "26", "100000", "1000000" })
+    private int productCount;
+
+    private List<Product> products;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        products = new ArrayList<>(productCount);
+        for (int i = 1; i <= productCount; i++) {
+            Product product = new Product("Product " + i, i % 2 == 0 ? "Food" : "Electronics",
+                    new BigDecimal("19.99"), i % 2 == 0 ? LocalDate.of(2027, 1, 1) : null, i % 100);
+            product.setId(i);
+            products.add(product);
+        }
+        snapshot = Files.createTempFile("products", ".snapshot");
+        ProductSnapshot.write(snapshot, products);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public long seedWithIndividualSaves() {
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        for (Product product : products) {
+            productRepository.save(new Product(product.getName(), product.getCategory(), product.getUnitPrice(),
+                    product.getExpirationDate(), product.getStock()));
+        }
+        return productRepository.count();
+    }
+
+    @Benchmark
+    public long restoreFromSnapshot() throws IOException {
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        productRepository.restore(ProductSnapshot.read(snapshot));
+        return productRepository.count();
+    }
+
+    @Benchmark
+    public long restoreUntilFirstQuery() throws IOException {
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        productRepository.restore(ProductSnapshot.read(snapshot));
+        ProductServiceImpl productService = new ProductServiceImpl(productRepository, null);
+        Page<Product> page = productService.listProducts(null, "food", true, PageRequest.of(0, 10, Sort.by("name")));
+        return page.getTotalElements();
+    }
+
+    @Benchmark
+    public long restoreUntilIndexed() throws IOException, InterruptedException {
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        productRepository.restore(ProductSnapshot.read(snapshot));
+        productRepository.awaitIndexes();
+        return productRepository.search("product 42", 10).size();
+    }
+}
@@ -0,0 +1,107 @@
+package com.inventory.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.backend.controller.LeanPage;
+import com.inventory.backend.model.Product;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and encode time for a 1k-row GET /products page, per format,
+ * envelope and compression. {@code wireBytes} is reported as a secondary result;
+ * the score covers serialization plus gzip, i.e. the server-side share of the
+ * end-to-end latency.
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.args="WireFormatBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param({ "page", "lean" })
+    private String envelope;
+
+    @Param({ "false", "true" })
+    private boolean gzip;
+
+    private ObjectMapper mapper;
+    private Object body;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long wireBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            Product product = new Product("Product " + i, i % 3 == 0 ? "Food" : "Electronics",
+                    new BigDecimal("19.99").add(BigDecimal.valueOf(i)), i % 3 == 0 ? LocalDate.of(2027, 1, 1) : null,
+                    i % 50);
+            product.setId(i);
+            products.add(product);
+        }
+        Page<Product> page = new PageImpl<>(products, PageRequest.of(0, ROWS, Sort.by("name")), 25_000);
+        body = "lean".equals(envelope) ? LeanPage.of(page) : page;
+
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> SmileMapper.builder().addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> JsonMapper.builder().addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        };
+    }
+
+    @Benchmark
+    public int encode(WireSize wireSize) throws IOException {
+        out.reset();
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        mapper.writeValue(target, body);
+        wireSize.wireBytes = out.size();
+        return out.size();
+    }
+}
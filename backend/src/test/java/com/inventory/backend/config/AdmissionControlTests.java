@@ -0,0 +1,187 @@
+package com.inventory.backend.config;
+
+import com.inventory.backend.config.AdmissionControlFilter.EndpointClass;
+import com.inventory.backend.config.AdmissionLimiter.Admission;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class AdmissionControlTests {
+
+    private static AdmissionControlFilter filter(int listLimit, int listQueue) {
+        return new AdmissionControlFilter(true, listLimit, listLimit, 250, listQueue, 20, 64, 512, 25, 128, 50, 200);
+    }
+
+    @Test
+    public void limiter_rejectsAtOnceWhenQueueIsFull() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", 1, 1, 4, 100, 0, 1_000, 200);
+
+        assertThat(limiter.acquire()).isEqualTo(Admission.ADMITTED);
+        long start = System.nanoTime();
+        assertThat(limiter.acquire()).isEqualTo(Admission.QUEUE_FULL);
+        assertThat(System.nanoTime() - start).isLessThan(500_000_000L);
+        assertThat(limiter.stats().rejectedQueueFull()).isEqualTo(1);
+    }
+
+    @Test
+    public void limiter_neverHoldsMoreRequestsThanItsWorkerThreads() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", 4, 1, 8, 100, 16, 1_000, 2);
+
+        assertThat(limiter.limit()).isEqualTo(2);
+        limiter.acquire();
+        limiter.acquire();
+        long start = System.nanoTime();
+        // The queue has room, but a waiting request would take a third thread
+        assertThat(limiter.acquire()).isEqualTo(Admission.QUEUE_FULL);
+        assertThat(System.nanoTime() - start).isLessThan(500_000_000L);
+        releaseRounds(limiter, 200, 2, 1_000_000);
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    public void limiter_queuedRequestTimesOutOrGetsReleasedPermit() throws Exception {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", 1, 1, 4, 100, 1, 30, 200);
+        limiter.acquire();
+
+        assertThat(limiter.acquire()).isEqualTo(Admission.TIMED_OUT);
+
+        AdmissionLimiter patient = new AdmissionLimiter("test", 1, 1, 4, 100, 1, 5_000, 200);
+        patient.acquire();
+        Thread releaser = new Thread(() -> {
+            sleep(10);
+            patient.release(1_000_000);
+        });
+        releaser.start();
+        assertThat(patient.acquire()).isEqualTo(Admission.ADMITTED);
+        releaser.join();
+        assertThat(limiter.stats().rejectedTimedOut()).isEqualTo(1);
+    }
+
+    @Test
+    public void limiter_growsWhileLatencyHoldsAndBacksOffWhenItRises() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", 4, 1, 8, 1, 0, 0, 200);
+        releaseRounds(limiter, 40, 3, 1_000_000);
+        int grown = limiter.limit();
+        assertThat(grown).isGreaterThan(4).isLessThanOrEqualTo(8);
+
+        releaseRounds(limiter, 10, 1, 20_000_000);
+        assertThat(limiter.limit()).isLessThan(grown)
+                .isGreaterThanOrEqualTo((int) (grown * AdmissionLimiter.MIN_GRADIENT));
+        assertThat(limiter.stats().baselineLatencyMillis()).isLessThan(2);
+    }
+
+    @Test
+    public void limiter_keepsItsLimitWhenEveryRequestIsSlow() throws InterruptedException {
+        AdmissionLimiter limiter = new AdmissionLimiter("test", 8, 1, 64, 25, 0, 0, 200);
+        // Every list query over a big catalog takes 400 ms, however few run at once
+        releaseRounds(limiter, 100, 4, 400_000_000);
+
+        assertThat(limiter.limit()).isGreaterThanOrEqualTo(8);
+        assertThat(limiter.stats().baselineLatencyMillis()).isEqualTo(400.0);
+    }
+
+    private static void releaseRounds(AdmissionLimiter limiter, int rounds, int concurrency, long latencyNanos)
+            throws InterruptedException {
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < concurrency; i++) {
+                limiter.acquire();
+            }
+            for (int i = 0; i < concurrency; i++) {
+                limiter.release(latencyNanos);
+            }
+        }
+    }
+
+    @Test
+    public void classify_separatesListReadsFromPointRequests() {
+        assertThat(AdmissionControlFilter.classify("GET", "/products")).isEqualTo(EndpointClass.LIST);
+        assertThat(AdmissionControlFilter.classify("GET", "/products/search")).isEqualTo(EndpointClass.LIST);
+        assertThat(AdmissionControlFilter.classify("GET", "/products/7")).isEqualTo(EndpointClass.POINT);
+        assertThat(AdmissionControlFilter.classify("POST", "/products")).isEqualTo(EndpointClass.POINT);
+        assertThat(AdmissionControlFilter.classify("GET", "/metrics/admission")).isNull();
+    }
+
+    @Test
+    public void filter_shedsListReadsButAdmitsPointReadsWhenListClassIsSaturated() throws Exception {
+        AdmissionControlFilter filter = filter(1, 0);
+        filter.limiter(EndpointClass.LIST).acquire();
+
+        MockHttpServletResponse listResponse = new MockHttpServletResponse();
+        MockFilterChain listChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/products"), listResponse, listChain);
+
+        assertThat(listResponse.getStatus()).isEqualTo(429);
+        assertThat(listResponse.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(listChain.getRequest()).isNull();
+
+        MockHttpServletResponse pointResponse = new MockHttpServletResponse();
+        MockFilterChain pointChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/1"), pointResponse, pointChain);
+
+        assertThat(pointResponse.getStatus()).isEqualTo(200);
+        assertThat(pointChain.getRequest()).isNotNull();
+        assertThat(filter.limiter(EndpointClass.POINT).stats().inFlight()).isZero();
+    }
+
+    @Test
+    public void filter_splitsWorkerThreadsBetweenClasses() {
+        AdmissionControlFilter filter = new AdmissionControlFilter(true, 8, 64, 25, 16, 100, 64, 512, 5, 128, 50,
+                200);
+
+        assertThat(filter.limiter(EndpointClass.LIST).limit()).isEqualTo(8);
+        assertThat(filter.limiter(EndpointClass.POINT).limit()).isEqualTo(64);
+        assertThatThrownBy(() -> new AdmissionControlFilter(true, 8, 64, 25, 16, 100, 64, 512, 5, 128, 50,
+                AdmissionControlFilter.RESERVED_THREADS + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void filter_classifiesLookupsByNumberOfIds() throws Exception {
+        AdmissionControlFilter filter = filter(1, 0);
+        filter.limiter(EndpointClass.LIST).acquire();
+
+        MockHttpServletRequest fewIds = new MockHttpServletRequest("POST", "/products/lookup");
+        fewIds.setContent("[1, 22, 333]".getBytes());
+        MockFilterChain fewIdsChain = new MockFilterChain();
+        filter.doFilter(fewIds, new MockHttpServletResponse(), fewIdsChain);
+
+        assertThat(fewIdsChain.getRequest()).isNotNull();
+        assertThat(new String(fewIdsChain.getRequest().getInputStream().readAllBytes())).isEqualTo("[1, 22, 333]");
+
+        String manyIds = IntStream.rangeClosed(1, AdmissionControlFilter.LOOKUP_POINT_IDS + 1)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(",", "[", "]"));
+        MockHttpServletRequest manyIdsRequest = new MockHttpServletRequest("POST", "/products/lookup");
+        manyIdsRequest.setContent(manyIds.getBytes());
+        MockHttpServletResponse manyIdsResponse = new MockHttpServletResponse();
+        filter.doFilter(manyIdsRequest, manyIdsResponse, new MockFilterChain());
+
+        assertThat(manyIdsResponse.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    public void filter_answers503WhenQueuedRequestWaitsTooLong() throws Exception {
+        AdmissionControlFilter filter = filter(1, 4);
+        filter.limiter(EndpointClass.LIST).acquire();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/products"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
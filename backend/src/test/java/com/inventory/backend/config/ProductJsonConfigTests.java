@@ -0,0 +1,73 @@
+package com.inventory.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.backend.model.Product;
+import com.inventory.backend.repository.ProductJsonCache;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ProductJsonConfigTests {
+    private ProductJsonCache jsonCache;
+    private ObjectMapper plainMapper;
+    private ObjectMapper cachingMapper;
+    private Product product;
+
+    @BeforeEach
+    public void setUp() {
+        jsonCache = new ProductJsonCache();
+        plainMapper = JsonMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        cachingMapper = JsonMapper.builder().addModule(new JavaTimeModule())
+                .addModule(new ProductJsonConfig().productJsonCacheModule(jsonCache))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        product = new Product("Dark Chocolate Bar", "Food", new BigDecimal("4.99"), LocalDate.of(2026, 4, 30), 4);
+        product.setId(1);
+        product.setVersion(5);
+    }
+
+    @Test
+    public void serialize_SavedProduct_MatchesPlainJsonAndIsCached() throws Exception {
+        String json = cachingMapper.writeValueAsString(product);
+
+        assertThat(json).isEqualTo(plainMapper.writeValueAsString(product));
+        assertThat(jsonCache.get(product)).isNotNull();
+    }
+
+    @Test
+    public void serialize_SameVersion_ReusesCachedJson() throws Exception {
+        String json = cachingMapper.writeValueAsString(product);
+        product.setName("Renamed without save");
+
+        assertThat(cachingMapper.writeValueAsString(product)).isEqualTo(json);
+    }
+
+    @Test
+    public void serialize_NewVersion_SerializesAgain() throws Exception {
+        cachingMapper.writeValueAsString(product);
+        product.setName("Milk Chocolate Bar");
+        product.setVersion(6);
+
+        assertThat(cachingMapper.writeValueAsString(product)).contains("Milk Chocolate Bar");
+    }
+
+    @Test
+    public void serialize_ProductsInsideEnvelope_MatchesPlainJson() throws Exception {
+        Product unsavedProduct = new Product("Rice", "Food", new BigDecimal("5.00"), null, 50);
+        Map<String, Object> envelope = Map.of("content", List.of(product, unsavedProduct, product));
+
+        assertThat(cachingMapper.writeValueAsString(envelope)).isEqualTo(plainMapper.writeValueAsString(envelope));
+        assertThat(jsonCache.size()).isEqualTo(1);
+    }
+}
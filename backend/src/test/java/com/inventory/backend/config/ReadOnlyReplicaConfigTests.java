@@ -0,0 +1,59 @@
+package com.inventory.backend.config;
+
+import com.inventory.backend.config.ReadOnlyReplicaConfig.ReadOnlyInterceptor;
+import com.inventory.backend.model.ReplicationStatus;
+import com.inventory.backend.replication.ReplicationNode;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ReadOnlyReplicaConfigTests {
+    private boolean serving = true;
+    private final ReadOnlyInterceptor interceptor = new ReadOnlyInterceptor(new ReplicationNode() {
+        @Override
+        public ReplicationStatus status() {
+            return ReplicationStatus.standalone();
+        }
+
+        @Override
+        public boolean serving() {
+            return serving;
+        }
+    });
+
+    @Test
+    public void interceptor_RejectsWritesWith405() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("POST", "/products"), response, null)).isFalse();
+        assertThat(response.getStatus()).isEqualTo(405);
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/products"),
+                new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    public void interceptor_AllowsBatchLookup() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("POST", "/products/lookup"), response, null))
+                .isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("PUT", "/products/lookup"),
+                new MockHttpServletResponse(), null)).isFalse();
+    }
+
+    @Test
+    public void interceptor_WhileLoadingSnapshot_Answers503ExceptReplicationStatus() throws Exception {
+        serving = false;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/products"), response, null)).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/replication/status"),
+                new MockHttpServletResponse(), null)).isTrue();
+    }
+}
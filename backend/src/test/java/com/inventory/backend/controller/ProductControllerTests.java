@@ -1,8 +1,19 @@
 package com.inventory.backend.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductChanges;
+import com.inventory.backend.model.ProductLookup;
+import com.inventory.backend.model.ProductPage;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.model.Reservation;
+import com.inventory.backend.model.StockAvailability;
+import com.inventory.backend.model.StockHistory;
+import com.inventory.backend.service.ProductQuery;
 import com.inventory.backend.service.ProductService;
+import com.inventory.backend.service.ReservationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,12 +28,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -39,6 +55,9 @@ public class ProductControllerTests {
         @MockitoBean
         private ProductService productService;
 
+        @MockitoBean
+        private ReservationService reservationService;
+
         private Product product;
         private List<Product> productList;
 
@@ -62,7 +81,7 @@ public class ProductControllerTests {
         public void listProducts_ReturnsPageOfProducts() throws Exception {
                 Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
                 Page<Product> productPage = new PageImpl<>(productList, pageable, productList.size());
-                when(productService.listProducts(any(), any(), any(), any(Pageable.class))).thenReturn(productPage);
+                when(productService.listProducts(any(ProductQuery.class), any(Pageable.class))).thenReturn(productPage);
 
                 mockMvc.perform(get("/products").param("page", "0").param("size", "10").param("sort", "name"))
                                 .andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -70,8 +89,118 @@ public class ProductControllerTests {
                                 .andExpect(jsonPath("$.content[0].name", is("Product Name")))
                                 .andExpect(jsonPath("$.content[1].name", is("Laptop")));
 
-                verify(productService, times(1)).listProducts(any(), any(), any(), any(Pageable.class));
+                verify(productService, times(1)).listProducts(any(ProductQuery.class), any(Pageable.class));
+
+        }
+
+        @Test
+        public void listProducts_RangeParams_BindsProductQuery() throws Exception {
+                Page<Product> productPage = new PageImpl<>(List.of(product), PageRequest.of(0, 20), 1);
+                ProductQuery expectedQuery = new ProductQuery(null, "Electronics", null, new BigDecimal("50"),
+                                new BigDecimal("150"), LocalDate.of(2027, 3, 1), null, null, null, null);
+                when(productService.listProducts(eq(expectedQuery), any(Pageable.class))).thenReturn(productPage);
+
+                mockMvc.perform(get("/products").param("category", "Electronics").param("minPrice", "50")
+                                .param("maxPrice", "150").param("expiresBefore", "2027-03-01"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()", is(1)));
+
+                verify(productService, times(1)).listProducts(eq(expectedQuery), any(Pageable.class));
+        }
+
+        @Test
+        public void listProducts_Facets_ReturnsCountsWithPage() throws Exception {
+                Map<String, Map<String, Long>> facets = Map.of("category", Map.of("Electronics", 1L),
+                                "inStock", Map.of("true", 2L, "false", 0L));
+                Page<Product> productPage = new ProductPage(productList, PageRequest.of(0, 20), 2, facets);
+                when(productService.listProducts(any(ProductQuery.class), any(Pageable.class))).thenReturn(productPage);
+
+                mockMvc.perform(get("/products").param("facets", "category,inStock"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()", is(2)))
+                                .andExpect(jsonPath("$.facets.category.Electronics", is(1)))
+                                .andExpect(jsonPath("$.facets.inStock.true", is(2)));
+                mockMvc.perform(get("/products").param("facets", "category,inStock").param("envelope", "lean"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.facets.inStock.false", is(0)));
+
+                verify(productService, times(2)).listProducts(
+                                argThat(query -> query.facets().equals(Set.of("category", "inStock"))),
+                                any(Pageable.class));
+        }
+
+        @Test
+        public void listProducts_LeanEnvelope_ReturnsContentTotalAndNextCursor() throws Exception {
+                Pageable pageable = PageRequest.of(0, 2);
+                Page<Product> productPage = new PageImpl<>(productList, pageable, 5);
+                when(productService.listProducts(any(ProductQuery.class), any(Pageable.class))).thenReturn(productPage);
+
+                mockMvc.perform(get("/products").param("envelope", "lean").param("size", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()", is(2)))
+                                .andExpect(jsonPath("$.total", is(5)))
+                                .andExpect(jsonPath("$.nextCursor", is("1")))
+                                .andExpect(jsonPath("$.pageable").doesNotExist());
+        }
+
+        @Test
+        public void listProducts_AcceptCbor_ReturnsCborPage() throws Exception {
+                Pageable pageable = PageRequest.of(0, 10);
+                Page<Product> productPage = new PageImpl<>(productList, pageable, productList.size());
+                when(productService.listProducts(any(ProductQuery.class), any(Pageable.class))).thenReturn(productPage);
+
+                byte[] body = mockMvc.perform(get("/products").param("envelope", "lean")
+                                .accept(MediaType.parseMediaType("application/cbor")))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType("application/cbor"))
+                                .andReturn().getResponse().getContentAsByteArray();
+
+                JsonNode page = new CBORMapper().readTree(body);
+                assertThat(page.get("content").get(1).get("name").asText()).isEqualTo("Laptop");
+                assertThat(page.get("total").asLong()).isEqualTo(2);
+                assertThat(page.get("nextCursor").isNull()).isTrue();
+        }
+
+        @Test
+        public void searchProducts_Query_ReturnsRankedResults() throws Exception {
+                when(productService.searchProducts("hedphones", 20))
+                                .thenReturn(List.of(new ProductSearchResult(product, 0.8)));
+
+                mockMvc.perform(get("/products/search").param("q", "hedphones"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].product.name", is("Product Name")))
+                                .andExpect(jsonPath("$[0].score", is(0.8)));
+
+                verify(productService, times(1)).searchProducts("hedphones", 20);
+        }
+
+        @Test
+        public void getChanges_Since_ReturnsChangesAndTombstones() throws Exception {
+                ProductChanges changes = new ProductChanges(List.of(new ProductChanges.Change(41, 1, false, product),
+                                new ProductChanges.Change(42, 7, true, null)), 42, false);
+                when(productService.getChanges(40, 100)).thenReturn(changes);
+
+                mockMvc.perform(get("/products/changes").param("since", "40"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.changes[0].product.name", is("Product Name")))
+                                .andExpect(jsonPath("$.changes[1].deleted", is(true)))
+                                .andExpect(jsonPath("$.changes[1].product").doesNotExist())
+                                .andExpect(jsonPath("$.next", is(42)));
+        }
+
+        @Test
+        public void lookupProducts_Ids_ReturnsResultsInRequestOrder() throws Exception {
+                ProductLookup lookup = new ProductLookup(List.of(new ProductLookup.Result(1, true, product),
+                                new ProductLookup.Result(9, false, null)), 1);
+                when(productService.lookupProducts(List.of(1, 9))).thenReturn(lookup);
 
+                mockMvc.perform(post("/products/lookup").contentType(MediaType.APPLICATION_JSON).content("[1, 9]"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.results[0].product.name", is("Product Name")))
+                                .andExpect(jsonPath("$.results[1].id", is(9)))
+                                .andExpect(jsonPath("$.results[1].found", is(false)))
+                                .andExpect(jsonPath("$.results[1].product").doesNotExist())
+                                .andExpect(jsonPath("$.found", is(1)));
         }
 
         @Test
@@ -86,6 +215,27 @@ public class ProductControllerTests {
                 verify(productService, times(1)).getProductbyId(1);
         }
 
+        @Test
+        public void getStockHistory_ExistingId_ReturnsMovementsAndSellThrough() throws Exception {
+                StockHistory history = new StockHistory(1, 95,
+                                List.of(new StockHistory.Movement(Instant.parse("2026-10-01T10:15:30Z"), -5)),
+                                List.of(), new StockHistory.SellThrough(7, 0, 5, 0.05));
+                when(productService.getStockHistory(1, 7)).thenReturn(Optional.of(history));
+
+                mockMvc.perform(get("/products/1/stock-history").param("days", "7"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.movements[0].timestamp", is("2026-10-01T10:15:30Z")))
+                                .andExpect(jsonPath("$.movements[0].delta", is(-5)))
+                                .andExpect(jsonPath("$.sellThrough.rate", is(0.05)));
+        }
+
+        @Test
+        public void getStockHistory_NonExistingId_ReturnsNotFound() throws Exception {
+                when(productService.getStockHistory(99, 30)).thenReturn(Optional.empty());
+
+                mockMvc.perform(get("/products/99/stock-history")).andExpect(status().isNotFound());
+        }
+
         @Test
         public void getProductbyId_NonExistingId_ReturnsNotFound() throws Exception {
                 when(productService.getProductbyId(-1)).thenReturn(Optional.empty());
@@ -110,16 +260,17 @@ public class ProductControllerTests {
         @Test
         public void createProduct_ValidProduct_ReturnsBadRequest() throws Exception {
                 when(productService.createProduct(any(Product.class)))
-                                .thenThrow(IllegalArgumentException.class);
+                                .thenThrow(new IllegalArgumentException("Validation error: name: Name is required"));
 
                 Product invalidProduct = new Product(
                                 "", "Category", new BigDecimal("19.99"), LocalDate.now(), 100);
                 String productJson = objectMapper.writeValueAsString(invalidProduct);
 
                 mockMvc.perform(post("/products").contentType(MediaType.APPLICATION_JSON).content(productJson))
-                                .andExpect(status().isBadRequest());
+                                .andExpect(status().isBadRequest())
+                                .andExpect(content().string("Validation error: name: Name is required"));
 
-                verify(productService, never()).createProduct(any(Product.class));
+                verify(productService, times(1)).createProduct(any(Product.class));
         }
 
         @Test
@@ -213,4 +364,56 @@ public class ProductControllerTests {
 
                 verify(productService, times(1)).markProductInStock(eq(1), any());
         }
+
+        @Test
+        public void reserveStock_ValidQuantity_ReturnsCreatedReservation() throws Exception {
+                Reservation reservation = new Reservation(7, 1, 2, Instant.parse("2026-10-19T12:05:00Z"));
+                when(reservationService.reserve(1, 2, 300)).thenReturn(reservation);
+
+                mockMvc.perform(post("/products/1/reservations").param("quantity", "2"))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.id", is(7)))
+                                .andExpect(jsonPath("$.expiresAt", is("2026-10-19T12:05:00Z")));
+        }
+
+        @Test
+        public void reserveStock_InsufficientStock_ReturnsBadRequest() throws Exception {
+                when(reservationService.reserve(1, 500, 60))
+                                .thenThrow(new IllegalArgumentException("Insufficient stock for product with ID 1"));
+
+                mockMvc.perform(post("/products/1/reservations").param("quantity", "500").param("ttlSeconds", "60"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(content().string("Insufficient stock for product with ID 1"));
+        }
+
+        @Test
+        public void confirmAndReleaseReservation_ReturnProductAndNoContent() throws Exception {
+                when(reservationService.confirm(1, 7L)).thenReturn(product);
+
+                mockMvc.perform(post("/products/1/reservations/7/confirm"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name", is("Product Name")));
+                mockMvc.perform(delete("/products/1/reservations/8")).andExpect(status().isNoContent());
+
+                verify(reservationService, times(1)).release(1, 8L);
+        }
+
+        @Test
+        public void getAvailability_ExistingId_ReturnsAvailableToSell() throws Exception {
+                when(reservationService.getAvailability(1)).thenReturn(Optional.of(new StockAvailability(1, 100, 30, 70)));
+
+                mockMvc.perform(get("/products/1/availability"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.available", is(70)));
+        }
+
+        @Test
+        public void decrementStock_ValidQuantity_ReturnsNoContent() throws Exception {
+                mockMvc.perform(post("/products/1/decrement").param("quantity", "2"))
+                                .andExpect(status().isNoContent());
+                mockMvc.perform(put("/products/1/hot")).andExpect(status().isNoContent());
+
+                verify(productService, times(1)).decrementStock(1, 2);
+                verify(productService, times(1)).setHotProduct(1, true);
+        }
 }
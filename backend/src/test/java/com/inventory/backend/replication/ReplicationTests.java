@@ -0,0 +1,208 @@
+package com.inventory.backend.replication;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ReplicationStatus;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ReplicationTests {
+    private ProductRepositoryImpl leaderRepository;
+    private ProductRepositoryImpl followerRepository;
+    private ReplicationLeader leader;
+    private ReplicationFollower follower;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (follower != null) {
+            follower.stop();
+        }
+        if (leader != null) {
+            leader.stop();
+        }
+    }
+
+    @Test
+    public void Follower_LoadsSnapshot_ThenAppliesStreamedChanges() throws Exception {
+        startLeader(1000);
+        for (int i = 1; i <= 3; i++) {
+            leaderRepository.save(product("Product " + i, i * 10));
+        }
+        startFollower();
+        awaitInSync();
+
+        Product updated = leaderRepository.findById(1).orElseThrow();
+        updated.setStock(0);
+        leaderRepository.save(updated);
+        leaderRepository.deleteById(2);
+        leaderRepository.save(product("Product 4", 40));
+        awaitInSync();
+
+        assertThat(followerRepository.findById(1).orElseThrow().getStock()).isZero();
+        assertThat(followerRepository.existsById(2)).isFalse();
+        assertThat(followerRepository.findByInStock(false)).extracting(Product::getId).containsExactly(1);
+        ReplicationStatus status = follower.status();
+        assertThat(status.connected()).isTrue();
+        assertThat(status.lagEntries()).isZero();
+        assertThat(status.snapshots()).isEqualTo(1);
+        assertThat(leader.status().followers()).isEqualTo(1);
+    }
+
+    @Test
+    public void Follower_ServesOnlyOnceSnapshotIsLoaded() throws Exception {
+        startLeader(1000);
+        leaderRepository.save(product("Product 1", 10));
+        followerRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        follower = new ReplicationFollower(followerRepository, "localhost:" + leader.getPort());
+
+        assertThat(follower.serving()).isFalse();
+        follower.start();
+        awaitInSync();
+
+        assertThat(follower.serving()).isTrue();
+    }
+
+    @Test
+    public void Follower_Reconnecting_ResumesFromLog() throws Exception {
+        startLeader(1000);
+        leaderRepository.save(product("Product 1", 10));
+        startFollower();
+        awaitInSync();
+
+        follower.stop();
+        leaderRepository.save(product("Product 2", 20));
+        leaderRepository.deleteById(1);
+        follower.start();
+        awaitInSync();
+
+        assertThat(follower.status().snapshots()).isEqualTo(1);
+    }
+
+    @Test
+    public void Follower_BehindTheLog_ReloadsSnapshot() throws Exception {
+        startLeader(4);
+        leaderRepository.save(product("Product 1", 10));
+        startFollower();
+        awaitInSync();
+
+        follower.stop();
+        for (int i = 2; i <= 10; i++) {
+            leaderRepository.save(product("Product " + i, i));
+        }
+        follower.start();
+        awaitInSync();
+
+        assertThat(follower.status().snapshots()).isEqualTo(2);
+    }
+
+    @Test
+    public void Follower_LeaderDeletesAll_ClearsStore() throws Exception {
+        startLeader(1000);
+        leaderRepository.save(product("Product 1", 10));
+        startFollower();
+        awaitInSync();
+
+        leaderRepository.deleteAll();
+        leaderRepository.save(product("Product 2", 20));
+        awaitInSync();
+
+        assertThat(followerRepository.findAll()).extracting(Product::getName).containsExactly("Product 2");
+    }
+
+    @Test
+    public void Replica_SaveOlderThanDelete_IsNotApplied() {
+        ProductRepositoryImpl replica = new ProductRepositoryImpl(new ProductJsonCache());
+        Product saved = product("Product 1", 10);
+        saved.setId(1);
+        saved.setVersion(5);
+        assertThat(replica.applyReplicated(saved)).isTrue();
+        assertThat(replica.applyReplicatedDelete(1, 6)).isTrue();
+
+        Product replayed = product("Product 1", 10);
+        replayed.setId(1);
+        replayed.setVersion(5);
+        assertThat(replica.applyReplicated(replayed)).isFalse();
+        assertThat(replica.existsById(1)).isFalse();
+
+        // A delete that overtakes its save leaves the same tombstone
+        assertThat(replica.applyReplicatedDelete(2, 9)).isFalse();
+        Product late = product("Product 2", 20);
+        late.setId(2);
+        late.setVersion(8);
+        assertThat(replica.applyReplicated(late)).isFalse();
+        assertThat(replica.existsById(2)).isFalse();
+
+        Product recreated = product("Product 1", 30);
+        recreated.setId(1);
+        recreated.setVersion(10);
+        assertThat(replica.applyReplicated(recreated)).isTrue();
+        assertThat(replica.findById(1).orElseThrow().getStock()).isEqualTo(30);
+    }
+
+    @Test
+    public void Replica_ClearedAsOfSourceVersion_KeepsItsNumbersAndServesOlderProducts() {
+        ProductRepositoryImpl replica = new ProductRepositoryImpl(new ProductJsonCache());
+        for (int i = 1; i <= 20; i++) {
+            replica.save(product("Local " + i, i));
+        }
+
+        // A snapshot from a store at version 7 holding a product last saved at version 5
+        replica.clearReplicated(7);
+        Product loaded = product("Product 1", 10);
+        loaded.setId(1);
+        loaded.setVersion(5);
+        assertThat(replica.applyReplicated(loaded)).isTrue();
+
+        assertThat(replica.lastVersion()).isEqualTo(7);
+        assertThat(replica.findAll()).extracting(Product::getName).containsExactly("Product 1");
+        assertThat(replica.findAllAsOf(replica.openSnapshot())).extracting(Product::getName)
+                .containsExactly("Product 1");
+        assertThat(replica.findChangesSince(0, 10).changes()).hasSize(1);
+    }
+
+    private void startLeader(int logCapacity) throws Exception {
+        leaderRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        leader = new ReplicationLeader(leaderRepository, "127.0.0.1", 0, logCapacity);
+        leader.start();
+    }
+
+    private void startFollower() {
+        followerRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        follower = new ReplicationFollower(followerRepository, "localhost:" + leader.getPort());
+        follower.start();
+    }
+
+    private void awaitInSync() throws InterruptedException {
+        await(() -> follower.status().connected()
+                && follower.status().appliedOffset() == leader.status().appliedOffset()
+                && sorted(followerRepository.findAll()).equals(sorted(leaderRepository.findAll())));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Follower did not catch up with the leader");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<Product> sorted(List<Product> products) {
+        return products.stream().sorted(Comparator.comparing(Product::getId)).toList();
+    }
+
+    private static Product product(String name, int stock) {
+        return new Product(name, "Category", new BigDecimal("9.99"), LocalDate.now().plusDays(30), stock);
+    }
+}
@@ -1,11 +1,20 @@
 package com.inventory.backend.repository;
 
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductChanges;
+import com.inventory.backend.model.StockAvailability;
+import com.inventory.backend.model.StockHistory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -141,4 +150,516 @@ public class ProductRepositoryTests {
 
         assertThat(existingProduct).isTrue();
     }
+
+    @Test
+    public void ProductRepository_SaveAll_AssignsIdsAndCounts() {
+        List<Product> products = List.of(
+                new Product("Rice", "Food", new BigDecimal("5.00"), null, 50),
+                new Product("Laptop", "Electronics", new BigDecimal("1200.00"), null, 0));
+
+        List<Product> savedProducts = productRepository.saveAll(products);
+
+        assertThat(savedProducts).extracting(Product::getId).containsExactly(1, 2);
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void ProductRepository_Restore_KeepsIdsAndContinuesSequence() {
+        Product restoredProduct = new Product("Rice", "Food", new BigDecimal("5.00"), null, 50);
+        restoredProduct.setId(41);
+        restoredProduct.setCreationDate(LocalDate.of(2024, 1, 1));
+
+        productRepository.restore(List.of(restoredProduct));
+        Product newProduct = productRepository.save(
+                new Product("Laptop", "Electronics", new BigDecimal("1200.00"), null, 0));
+
+        assertThat(productRepository.findById(41)).contains(restoredProduct);
+        assertThat(restoredProduct.getCreationDate()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(newProduct.getId()).isEqualTo(42);
+    }
+
+    @Test
+    public void ProductRepository_Restore_AnswersBeforeIndexesAreBuiltAndKeepsWritesMadeMeanwhile() throws Exception {
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new ProductJsonCache());
+        List<Product> restoredProducts = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            Product product = new Product("Product " + i, i % 2 == 0 ? "Food" : "Toys",
+                    new BigDecimal(i % 100 + ".00"), null, i % 3);
+            product.setId(i);
+            restoredProducts.add(product);
+        }
+
+        repository.restore(restoredProducts);
+        Product moved = repository.findById(1).orElseThrow();
+        moved.setCategory("Garden");
+        moved.setUnitPrice(new BigDecimal("500.00"));
+        repository.save(moved);
+        repository.deleteById(2);
+
+        // Whether or not the build is done, the finders answer for every product
+        assertThat(repository.findByCategoryIn(List.of("Garden"))).extracting(Product::getId).containsExactly(1);
+        assertThat(repository.findByCategoryIn(List.of("Food"))).hasSize(9_999);
+        repository.awaitIndexes();
+        assertThat(repository.getStatistics()).isNotNull();
+        assertThat(repository.findByCategoryIn(List.of("Garden"))).extracting(Product::getId).containsExactly(1);
+        assertThat(repository.findByCategoryIn(List.of("Food"))).hasSize(9_999);
+        assertThat(repository.findByUnitPriceBetween(new BigDecimal("500.00"), null)).extracting(Product::getId)
+                .containsExactly(1);
+        assertThat(repository.findByInStock(false)).hasSize(6_666);
+        assertThat(repository.search("product 20000", 1)).extracting(result -> result.product().getId())
+                .containsExactly(20_000);
+    }
+
+    @Test
+    public void ProductRepository_RangeIndexes_FollowUpdatesAndDeletes() {
+        Product rice = productRepository.save(
+                new Product("Rice", "Food", new BigDecimal("5.00"), LocalDate.of(2027, 3, 1), 50));
+        Product milk = productRepository.save(
+                new Product("Milk", "Food", new BigDecimal("2.50"), LocalDate.of(2027, 1, 15), 20));
+        Product laptop = productRepository.save(
+                new Product("Laptop", "Electronics", new BigDecimal("1200.00"), null, 5));
+
+        assertThat(productRepository.findByUnitPriceBetween(new BigDecimal("2.50"), new BigDecimal("5")))
+                .containsExactlyInAnyOrder(rice, milk);
+        assertThat(productRepository.findByExpirationDateBetween(null, LocalDate.of(2027, 3, 1)))
+                .containsExactly(milk);
+
+        rice.setUnitPrice(new BigDecimal("7.00"));
+        productRepository.save(rice);
+        productRepository.deleteById(milk.getId());
+
+        assertThat(productRepository.findByUnitPriceBetween(null, new BigDecimal("6.00"))).isEmpty();
+        assertThat(productRepository.findByUnitPriceBetween(new BigDecimal("6.00"), null))
+                .containsExactlyInAnyOrder(rice, laptop);
+        assertThat(productRepository.findByExpirationDateBetween(LocalDate.of(2027, 1, 1), null))
+                .containsExactly(rice);
+    }
+
+    @Test
+    public void ProductRepository_Statistics_TrackCategoriesStockAndRanges() {
+        Product rice = productRepository.save(
+                new Product("Rice", "Food", new BigDecimal("5.00"), LocalDate.of(2027, 3, 1), 50));
+        productRepository.save(new Product("Milk", "Food", new BigDecimal("2.50"), null, 0));
+        Product laptop = productRepository.save(
+                new Product("Laptop", "Electronics", new BigDecimal("1200.00"), null, 5));
+
+        laptop.setStock(0);
+        productRepository.save(laptop);
+        ProductStatistics statistics = productRepository.getStatistics();
+
+        assertThat(statistics.productCount()).isEqualTo(3);
+        assertThat(statistics.categoryCounts()).containsExactly(entry("Electronics", 1), entry("Food", 2));
+        assertThat(statistics.inStockCount()).isEqualTo(1);
+        assertThat(statistics.outOfStockCount()).isEqualTo(2);
+        assertThat(statistics.unitPrice()).isEqualTo(new ProductStatistics.KeyRange(2.5, 1200, 3));
+        assertThat(statistics.expirationDate().count()).isEqualTo(1);
+        assertThat(productRepository.findByInStock(true)).containsExactly(rice);
+        assertThat(productRepository.findByCategoryIn(List.of("Electronics", "Toys"))).containsExactly(laptop);
+    }
+
+    @Test
+    public void ProductRepository_SaveChangingStock_RecordsStockMovements() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 50));
+
+        rice.setStock(45);
+        productRepository.save(rice);
+        rice.setName("Brown Rice");
+        productRepository.save(rice);
+        rice.setStock(0);
+        productRepository.save(rice);
+
+        StockHistory history = productRepository.findStockHistory(rice.getId()).get();
+        assertThat(history.stock()).isZero();
+        assertThat(history.movements()).extracting(StockHistory.Movement::delta).containsExactly(-5, -45);
+
+        productRepository.deleteById(rice.getId());
+        assertThat(productRepository.findStockHistory(rice.getId())).isEmpty();
+    }
+
+    @Test
+    public void ProductRepository_ReserveAndConfirm_KeepsStockAndHeldUnitsTogether() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+
+        assertThat(productRepository.reserveStock(rice.getId(), 7)).isTrue();
+        assertThat(productRepository.reserveStock(rice.getId(), 4)).isFalse();
+        assertThat(productRepository.findStockAvailability(rice.getId()))
+                .contains(new StockAvailability(rice.getId(), 10, 7, 3));
+
+        Product sold = productRepository.confirmStock(rice.getId(), 5);
+        productRepository.releaseStock(rice.getId(), 2);
+
+        assertThat(sold.getStock()).isEqualTo(5);
+        assertThat(productRepository.findStockAvailability(rice.getId()))
+                .contains(new StockAvailability(rice.getId(), 5, 0, 5));
+    }
+
+    @Test
+    public void ProductRepository_ConcurrentReservations_NeverOversell() throws Exception {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 1_000));
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (productRepository.reserveStock(rice.getId(), 1)) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(reserved.get()).isEqualTo(1_000);
+        assertThat(productRepository.findStockAvailability(rice.getId()).get().available()).isZero();
+    }
+
+    @Test
+    public void ProductRepository_HotProductDecrements_ReconcileToExactStockOnRead() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        productRepository.setHot(rice.getId(), true);
+
+        assertThat(productRepository.decrementStock(rice.getId(), 4)).isTrue();
+        assertThat(productRepository.reserveStock(rice.getId(), 5)).isTrue();
+        assertThat(productRepository.decrementStock(rice.getId(), 2)).isFalse();
+        assertThat(productRepository.findStockAvailability(rice.getId()))
+                .contains(new StockAvailability(rice.getId(), 6, 5, 1));
+        assertThat(productRepository.findById(rice.getId()).get().getStock()).isEqualTo(6);
+
+        productRepository.confirmStock(rice.getId(), 5);
+        productRepository.setHot(rice.getId(), false);
+
+        assertThat(productRepository.findById(rice.getId()).get().getStock()).isEqualTo(1);
+        assertThat(productRepository.decrementStock(rice.getId(), 1)).isTrue();
+        assertThat(productRepository.findById(rice.getId()).get().getStock()).isZero();
+    }
+
+    @Test
+    public void ProductRepository_ReadHotProduct_ShowsExactStockWithoutWriting() {
+        // Not the application's repository, whose scheduled publishHotStocks could run in between
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new ProductJsonCache());
+        Product rice = repository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        repository.setHot(rice.getId(), true);
+        long version = repository.lastVersion();
+        long changesSeen = repository.findChangesSince(0, 1_000).next();
+
+        repository.decrementStock(rice.getId(), 4);
+
+        assertThat(repository.findById(rice.getId()).get().getStock()).isEqualTo(6);
+        assertThat(repository.findAll()).extracting(Product::getStock).containsExactly(6);
+        assertThat(repository.findAllById(List.of(rice.getId()))).extracting(Product::getStock)
+                .containsExactly(6);
+        assertThat(repository.search("rice", 10)).extracting(result -> result.product().getStock())
+                .containsExactly(6);
+        assertThat(repository.lastVersion()).isEqualTo(version);
+        assertThat(repository.findChangesSince(changesSeen, 10).changes()).isEmpty();
+
+        repository.publishHotStocks();
+
+        assertThat(repository.lastVersion()).isEqualTo(version + 1);
+        assertThat(repository.findChangesSince(changesSeen, 10).changes())
+                .extracting(change -> change.product().getStock()).containsExactly(6);
+        repository.publishHotStocks();
+        assertThat(repository.lastVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    public void ProductRepository_SaveHotProductWithNewStock_ResetsCounter() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        productRepository.setHot(rice.getId(), true);
+        productRepository.decrementStock(rice.getId(), 3);
+
+        Product savedRice = productRepository.findById(rice.getId()).get();
+        savedRice.setName("Brown Rice");
+        productRepository.save(savedRice);
+        assertThat(productRepository.findStockAvailability(rice.getId()).get().stock()).isEqualTo(7);
+
+        savedRice.setStock(50);
+        productRepository.save(savedRice);
+        assertThat(productRepository.findStockAvailability(rice.getId()).get().stock()).isEqualTo(50);
+    }
+
+    @Test
+    public void ProductRepository_SaveHotProduct_WritesExplicitStockAndRejectsStaleStock() {
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new ProductJsonCache());
+        Product rice = repository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        repository.setHot(rice.getId(), true);
+        repository.publishHotStocks();
+        Product staleRice = repository.findById(rice.getId()).get();
+        repository.decrementStock(rice.getId(), 3);
+
+        // The stock last published, written on purpose
+        Product restocked = repository.findById(rice.getId()).get();
+        restocked.setStock(10);
+        repository.save(restocked);
+        assertThat(repository.findStockAvailability(rice.getId()).get().stock()).isEqualTo(10);
+
+        repository.decrementStock(rice.getId(), 1);
+        staleRice.setStock(20);
+        assertThatThrownBy(() -> repository.save(staleRice, 10)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("changed since it was read");
+        assertThat(repository.findStockAvailability(rice.getId()).get().stock()).isEqualTo(9);
+
+        Product current = repository.findById(rice.getId()).get();
+        current.setStock(20);
+        repository.save(current, 9);
+        assertThat(repository.findStockAvailability(rice.getId()).get().stock()).isEqualTo(20);
+    }
+
+    @Test
+    public void ProductRepository_HotNameUpdatesRacingSalesAndReads_LoseNoUnits() throws Exception {
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new ProductJsonCache());
+        Product rice = repository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 100_000));
+        repository.setHot(rice.getId(), true);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int seller = 0; seller < 2; seller++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        if (repository.decrementStock(rice.getId(), 1)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    repository.findById(rice.getId());
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    // Renames built from a read that sales and newer reads have since overtaken
+                    Product stale = repository.findById(rice.getId()).get();
+                    int staleStock = stale.getStock();
+                    repository.findById(rice.getId());
+                    Thread.yield();
+                    stale.setName("Rice " + i);
+                    repository.save(stale, staleStock);
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(sold.get()).isEqualTo(40_000);
+        assertThat(repository.findStockAvailability(rice.getId()).get().stock()).isEqualTo(60_000);
+        repository.publishHotStocks();
+        assertThat(repository.findById(rice.getId()).get().getStock()).isEqualTo(60_000);
+        assertThat(repository.findById(rice.getId()).get().getName()).isEqualTo("Rice 1999");
+    }
+
+    @Test
+    public void ProductRepository_FindAllAsOfSnapshot_IgnoresLaterChanges() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        Product beans = productRepository.save(new Product("Beans", "Food", new BigDecimal("3.00"), null, 20));
+        long snapshot = productRepository.openSnapshot();
+
+        rice.setStock(0);
+        productRepository.save(rice);
+        productRepository.deleteById(beans.getId());
+        productRepository.save(new Product("Corn", "Food", new BigDecimal("2.00"), null, 30));
+
+        assertThat(productRepository.findAllAsOf(snapshot))
+                .extracting(product -> product.getName() + ":" + product.getStock())
+                .containsExactlyInAnyOrder("Rice:10", "Beans:20");
+        assertThat(productRepository.findAll()).extracting(Product::getName).containsExactlyInAnyOrder("Rice", "Corn");
+    }
+
+    @Test
+    public void ProductRepository_Snapshot_SharesCurrentProductsWithTheStore() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        Product stored = productRepository.findAll().get(0);
+        long snapshot = productRepository.openSnapshot();
+
+        assertThat(productRepository.findAllAsOf(snapshot)).singleElement().isSameAs(stored);
+        assertThat(productRepository.findById(rice.getId()).orElseThrow()).isNotSameAs(stored);
+
+        Product renamed = productRepository.findById(rice.getId()).orElseThrow();
+        renamed.setName("Brown rice");
+        productRepository.save(renamed);
+
+        // The superseded version is the product that was stored, not a copy of it
+        assertThat(productRepository.findAllAsOf(snapshot)).singleElement().isSameAs(stored)
+                .extracting(Product::getName).isEqualTo("Rice");
+        assertThat(productRepository.findAll()).singleElement().extracting(Product::getName).isEqualTo("Brown rice");
+    }
+
+    @Test
+    public void ProductRepository_FindAllAsOfWithCandidates_AddsProductsChangedSinceSnapshot() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        Product beans = productRepository.save(new Product("Beans", "Food", new BigDecimal("3.00"), null, 20));
+        productRepository.save(new Product("Laptop", "Electronics", new BigDecimal("900.00"), null, 2));
+        long snapshot = productRepository.openSnapshot();
+        rice.setUnitPrice(new BigDecimal("50.00"));
+        productRepository.save(rice);
+
+        List<Product> live = productRepository.findByUnitPriceBetween(BigDecimal.ZERO, BigDecimal.TEN);
+
+        assertThat(live).extracting(Product::getId).containsExactly(beans.getId());
+        assertThat(productRepository.findAllAsOf(snapshot, live))
+                .extracting(Product::getName, Product::getUnitPrice)
+                .containsExactlyInAnyOrder(tuple("Rice", new BigDecimal("5.00")), tuple("Beans", new BigDecimal("3.00")));
+    }
+
+    @Test
+    public void ProductRepository_OldVersions_AreDroppedWithoutSnapshotsAndCapped() {
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new ProductJsonCache(), 2, 60, 24);
+        Product rice = repository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        rice.setStock(9);
+        repository.save(rice);
+        assertThat(repository.retainedVersions()).isZero();
+
+        long oldest = repository.openSnapshot();
+        for (int stock = 8; stock > 4; stock--) {
+            rice.setStock(stock);
+            repository.save(rice);
+        }
+        long newest = repository.openSnapshot();
+        for (int stock = 4; stock > 0; stock--) {
+            rice.setStock(stock);
+            repository.save(rice);
+        }
+
+        // Only the versions the two snapshots read are kept, the ones between them are not
+        assertThat(repository.retainedVersions()).isEqualTo(2);
+        assertThat(repository.findAllAsOf(oldest)).extracting(Product::getStock).containsExactly(9);
+        assertThat(repository.findAllAsOf(newest)).extracting(Product::getStock).containsExactly(5);
+
+        repository.save(new Product("Beans", "Food", new BigDecimal("3.00"), null, 20));
+        repository.deleteById(rice.getId());
+        // The deletion is a third old version over the cap of two, so the oldest snapshot had to go
+        assertThat(repository.retainedVersions()).isEqualTo(2);
+        assertThatThrownBy(() -> repository.findAllAsOf(oldest)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.findAllAsOf(newest)).extracting(Product::getStock).containsExactly(5);
+    }
+
+    @Test
+    public void ProductRepository_FindAllById_ReturnsRequestOrderWithNullForMissing() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        Product beans = productRepository.save(new Product("Beans", "Food", new BigDecimal("3.00"), null, 20));
+
+        List<Product> found = productRepository.findAllById(List.of(beans.getId(), 999, rice.getId(), beans.getId()));
+
+        assertThat(found).containsExactly(beans, null, rice, beans);
+    }
+
+    @Test
+    public void ProductRepository_FindChangesSince_ReturnsLatestChangePerProductInOrder() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        Product beans = productRepository.save(new Product("Beans", "Food", new BigDecimal("3.00"), null, 20));
+        Product corn = productRepository.save(new Product("Corn", "Food", new BigDecimal("2.00"), null, 30));
+        long synced = productRepository.findChangesSince(0, 100).next();
+
+        rice.setStock(0);
+        productRepository.save(rice);
+        productRepository.deleteById(beans.getId());
+        corn.setStock(29);
+        productRepository.save(corn);
+        rice.setStock(5);
+        productRepository.save(rice);
+
+        ProductChanges changes = productRepository.findChangesSince(synced, 2);
+        assertThat(changes.changes()).extracting(ProductChanges.Change::id, ProductChanges.Change::deleted)
+                .containsExactly(tuple(beans.getId(), true), tuple(corn.getId(), false));
+        assertThat(changes.hasMore()).isTrue();
+        ProductChanges rest = productRepository.findChangesSince(changes.next(), 2);
+        assertThat(rest.changes()).extracting(change -> change.product().getStock()).containsExactly(5);
+        assertThat(rest.hasMore()).isFalse();
+        assertThat(productRepository.findChangesSince(rest.next(), 2).changes()).isEmpty();
+    }
+
+    @Test
+    public void ProductRepository_FindChangesSince_NumbersChangesWithProductVersions() {
+        Product rice = productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        long synced = productRepository.findChangesSince(0, 100).next();
+        rice.setStock(3);
+        productRepository.save(rice);
+        productRepository.deleteById(rice.getId());
+
+        assertThat(synced).isEqualTo(rice.getVersion() - 1);
+        assertThat(productRepository.findChangesSince(synced, 100).changes()).extracting(ProductChanges.Change::sequence)
+                .containsExactly(productRepository.lastVersion());
+    }
+
+    @Test
+    public void ChangeIndex_WriteStillOnItsWay_HidesLaterChanges() {
+        ProductChangeIndex index = new ProductChangeIndex(60_000);
+        AtomicLong sequence = new AtomicLong();
+        Product first = new Product("Rice", "Food", new BigDecimal("5.00"), null, 10);
+        first.setId(1);
+        first.setVersion(index.nextSequence(sequence));
+        Product second = new Product("Beans", "Food", new BigDecimal("3.00"), null, 20);
+        second.setId(2);
+        second.setVersion(index.nextSequence(sequence));
+
+        index.saved(second);
+        assertThat(index.since(0, 10)).isEmpty();
+
+        index.saved(first);
+        assertThat(index.since(0, 10)).extracting(ProductChangeIndex.Change::sequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void ProductRepository_WriteThatThrows_DoesNotHideLaterChanges() {
+        AtomicInteger failures = new AtomicInteger();
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new ProductJsonCache() {
+            @Override
+            public void invalidate(Integer id) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Cache unavailable");
+                }
+            }
+        });
+        Product rice = repository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        long synced = repository.findChangesSince(0, 100).next();
+
+        failures.set(2);
+        rice.setStock(3);
+        assertThatThrownBy(() -> repository.save(rice)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.deleteById(rice.getId())).isInstanceOf(IllegalStateException.class);
+        Product beans = repository.save(new Product("Beans", "Food", new BigDecimal("3.00"), null, 20));
+
+        assertThat(repository.findChangesSince(synced, 100).changes()).extracting(ProductChanges.Change::id)
+                .containsExactly(beans.getId());
+        assertThat(repository.openSnapshot()).isEqualTo(repository.lastVersion());
+    }
+
+    @Test
+    public void ProductRepository_DeleteAll_RequiresFullSync() {
+        productRepository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        long synced = productRepository.findChangesSince(0, 100).next();
+
+        productRepository.deleteAll();
+
+        assertThatThrownBy(() -> productRepository.findChangesSince(synced, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(productRepository.findChangesSince(0, 100).changes()).isEmpty();
+    }
+
+    @Test
+    public void ProductRepository_CompactedTombstones_RequireFullSync() throws Exception {
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new ProductJsonCache(), 100, 60, 0);
+        Product rice = repository.save(new Product("Rice", "Food", new BigDecimal("5.00"), null, 10));
+        repository.save(new Product("Beans", "Food", new BigDecimal("3.00"), null, 20));
+        long synced = repository.findChangesSince(0, 100).next();
+        repository.deleteById(rice.getId());
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> repository.findChangesSince(synced, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.findChangesSince(0, 100).changes()).extracting(ProductChanges.Change::id)
+                .containsExactly(2);
+    }
 }
@@ -0,0 +1,149 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.config.DataLoader;
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductSearchResult;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ProductSearchIndexTests {
+    private ProductRepositoryImpl productRepository;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        productRepository.saveAll(DataLoader.demoCatalog());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "hedphones, Noise Cancelling Headphones",
+            "wirless earbuds, Wireless Earbuds",
+            "keybord, Mechanical Keyboard",
+            "choclate, Dark Chocolate Bar",
+            "speakr, Bluetooth Speaker",
+            "samsng tablet, Samsung Galaxy Tablet",
+            "gamng mouse, Gaming Mouse",
+            "peanut buter, Peanut Butter 1kg",
+            "maple sirup, Maple Syrup 250ml",
+            "sweter, Knit Sweater",
+            "granola, Granola Cereal",
+            "fitnes, Fitness Tracker",
+            "extern ssd, External SSD 1TB",
+            "cofee, Canned Iced Coffee"
+    })
+    public void search_SeededNamesWithTypos_RanksIntendedProductFirst(String query, String expectedName) {
+        List<ProductSearchResult> results = productRepository.search(query, 5);
+
+        assertThat(results).isNotEmpty();
+        assertThat(results.get(0).product().getName()).isEqualTo(expectedName);
+    }
+
+    @Test
+    public void search_SharedToken_RanksFullerMatchFirst() {
+        List<ProductSearchResult> results = productRepository.search("leather belt", 5);
+
+        assertThat(results).extracting(result -> result.product().getName())
+                .containsExactly("Leather Belt", "Leather Wallet");
+        assertThat(results.get(0).score()).isGreaterThan(results.get(1).score());
+    }
+
+    @Test
+    public void search_Prefix_MatchesLongerTerms() {
+        List<ProductSearchResult> results = productRepository.search("head", 5);
+
+        assertThat(results).extracting(result -> result.product().getName())
+                .containsExactly("Noise Cancelling Headphones");
+    }
+
+    @Test
+    public void search_ShortTokens_RequireExactMatch() {
+        assertThat(productRepository.search("cab", 5)).isEmpty();
+        assertThat(productRepository.search("cap", 5)).extracting(result -> result.product().getName())
+                .containsExactly("Baseball Cap");
+    }
+
+    @Test
+    public void search_AfterUpdateAndDelete_ReflectsRepositoryWrites() {
+        Product mouse = productRepository.search("mouse", 1).get(0).product();
+        mouse.setName("Gaming Trackball");
+        productRepository.save(mouse);
+        Product speaker = productRepository.search("speaker", 1).get(0).product();
+        productRepository.deleteById(speaker.getId());
+        productRepository.save(new Product("Studio Speaker", "Electronics", new BigDecimal("199.00"), null, 3));
+
+        assertThat(productRepository.search("mouse", 5)).isEmpty();
+        assertThat(productRepository.search("trackbal", 5)).extracting(result -> result.product().getName())
+                .containsExactly("Gaming Trackball");
+        assertThat(productRepository.search("speaker", 5)).extracting(result -> result.product().getName())
+                .containsExactly("Studio Speaker");
+    }
+
+    @Test
+    public void termTrie_Search_ReturnsTermsWithinEditDistance() {
+        TermTrie termTrie = new TermTrie();
+        for (String term : List.of("headphones", "headphone", "phones", "kitten", "sitting", "mitten")) {
+            termTrie.add(term);
+        }
+        Map<String, Integer> matches = new HashMap<>();
+
+        termTrie.search("hedphones", 2, matches::put);
+        termTrie.search("kitten", 1, matches::put);
+
+        assertThat(matches).containsOnly(entry("headphones", 1), entry("headphone", 2),
+                entry("kitten", 0), entry("mitten", 1));
+    }
+
+    @Test
+    public void termTrie_Remove_DropsTermButKeepsTermsSharingItsPath() {
+        TermTrie termTrie = new TermTrie();
+        for (String term : List.of("headphones", "headphone", "kitten")) {
+            termTrie.add(term);
+        }
+        Map<String, Integer> matches = new HashMap<>();
+
+        termTrie.remove("headphones");
+        termTrie.remove("kitten");
+        termTrie.remove("mitten");
+        termTrie.search("headphones", 2, matches::put);
+        termTrie.search("kitten", 2, matches::put);
+
+        assertThat(matches).containsOnly(entry("headphone", 1));
+        assertThat(termTrie.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void searchIndex_TermWithoutProducts_IsRemoved() {
+        ProductSearchIndex searchIndex = new ProductSearchIndex();
+        Product first = new Product("Wireless Mouse", "Electronics", BigDecimal.TEN, null, 1);
+        first.setId(1);
+        Product second = new Product("Wireless Keyboard", "Electronics", BigDecimal.TEN, null, 1);
+        second.setId(2);
+        searchIndex.index(first);
+        searchIndex.index(second);
+        assertThat(searchIndex.termCount()).isEqualTo(3);
+
+        Product renamed = new Product("Wireless Trackball", "Electronics", BigDecimal.TEN, null, 1);
+        renamed.setId(1);
+        searchIndex.index(renamed);
+        searchIndex.remove(2);
+
+        assertThat(searchIndex.termCount()).isEqualTo(2);
+        assertThat(searchIndex.search("mouse", 5)).isEmpty();
+        assertThat(searchIndex.search("keybord", 5)).isEmpty();
+        assertThat(searchIndex.search("wireles", 5)).extracting(ProductSearchIndex.Hit::id).containsExactly(1);
+
+        searchIndex.remove(1);
+        assertThat(searchIndex.termCount()).isZero();
+    }
+}
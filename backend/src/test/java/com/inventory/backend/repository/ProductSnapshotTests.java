@@ -0,0 +1,59 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.Product;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ProductSnapshotTests {
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void ProductSnapshot_WriteThenRead_ReturnsEqualProducts() throws IOException {
+        Product product1 = new Product("Dark Chocolate Bar", "Food", new BigDecimal("4.99"),
+                LocalDate.of(2026, 4, 30), 4);
+        product1.setId(1);
+        product1.setCreationDate(LocalDate.of(2025, 1, 2));
+        product1.setUpdateDate(LocalDate.of(2025, 3, 4));
+        Product product2 = new Product("Café Crème", "Food", new BigDecimal("123456789012345678901.5"), null, 0);
+        product2.setId(7);
+        Path snapshot = tempDir.resolve("products.snapshot");
+
+        ProductSnapshot.write(snapshot, List.of(product1, product2));
+        List<Product> restoredProducts = ProductSnapshot.read(snapshot);
+
+        assertThat(restoredProducts).containsExactly(product1, product2);
+    }
+
+    @Test
+    public void ProductSnapshot_ReadInvalidFile_ThrowsException() throws IOException {
+        Path snapshot = Files.writeString(tempDir.resolve("products.snapshot"), "not a snapshot");
+
+        assertThatThrownBy(() -> ProductSnapshot.read(snapshot)).isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a product snapshot");
+    }
+
+    @Test
+    public void ProductSnapshot_ReadTruncatedFile_ThrowsIOException() throws IOException {
+        Product product = new Product("Rice", "Food", new BigDecimal("5.00"), null, 10);
+        product.setId(1);
+        Path snapshot = tempDir.resolve("products.snapshot");
+        ProductSnapshot.write(snapshot, List.of(product, product));
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 5));
+
+        assertThatThrownBy(() -> ProductSnapshot.read(snapshot)).isInstanceOf(IOException.class)
+                .hasMessageContaining("after 1 of 2 products");
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventory.backend.repository;
+
+import com.inventory.backend.model.StockHistory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class StockTimeSeriesTests {
+    private static final long DAY = StockTimeSeries.BUCKET_MILLIS;
+
+    @Test
+    public void record_StockChanges_StoresDeltasAndSkipsUnchangedStock() {
+        StockTimeSeries series = new StockTimeSeries(10);
+
+        series.record(1_000, 4);
+        series.record(2_000, 4);
+        series.record(3_000, 20);
+
+        StockHistory history = series.toHistory(7);
+        assertThat(history.stock()).isEqualTo(20);
+        assertThat(history.movements()).containsExactly(
+                new StockHistory.Movement(Instant.ofEpochMilli(1_000), -6),
+                new StockHistory.Movement(Instant.ofEpochMilli(3_000), 16));
+        assertThat(history.buckets()).isEmpty();
+    }
+
+    @Test
+    public void record_BeyondCapacity_DownsamplesOldestIntoDailyBuckets() {
+        StockTimeSeries series = new StockTimeSeries(0);
+        int stock = 0;
+        // Two movements per day: receive 10, sell 3
+        for (int day = 0; day < 40; day++) {
+            series.record(day * DAY + 1_000, stock += 10);
+            series.record(day * DAY + 2_000, stock -= 3);
+        }
+
+        StockHistory history = series.toHistory(1);
+        assertThat(history.movements()).hasSize(StockTimeSeries.EVENT_CAPACITY);
+        assertThat(history.movements().get(0).timestamp()).isEqualTo(Instant.ofEpochMilli(24 * DAY + 1_000));
+        // 24 days overflowed, all fit in the bucket ring
+        assertThat(history.buckets()).hasSize(24);
+        assertThat(history.buckets().get(0)).isEqualTo(new StockHistory.Bucket(Instant.EPOCH, 10, 3));
+        assertThat(history.stock()).isEqualTo(40 * 7);
+    }
+
+    @Test
+    public void record_AfterFirstMovement_DoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        StockTimeSeries series = new StockTimeSeries(0);
+        for (int i = 0; i < 100_000; i++) {
+            series.record(i * 60_000L, i % 50);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            series.record(i * 60_000L, i % 50);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).isLessThan(1024);
+    }
+}
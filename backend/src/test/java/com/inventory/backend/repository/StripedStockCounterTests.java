@@ -0,0 +1,86 @@
+package com.inventory.backend.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class StripedStockCounterTests {
+
+    @Test
+    public void tryDecrement_StripeExhausted_RebalancesFromOtherStripes() {
+        StripedStockCounter counter = new StripedStockCounter(8);
+        counter.add(10);
+
+        // Everything sits in this thread's stripe after add, then is spread by the first rebalance
+        assertThat(counter.tryDecrement(7)).isTrue();
+        assertThat(counter.tryDecrement(3)).isTrue();
+        assertThat(counter.tryDecrement(1)).isFalse();
+        assertThat(counter.sum()).isZero();
+    }
+
+    @Test
+    public void tryDecrement_MoreThanTotal_FailsWithoutLosingUnits() {
+        StripedStockCounter counter = new StripedStockCounter(4);
+        counter.reset(5);
+
+        assertThat(counter.tryDecrement(6)).isFalse();
+        assertThat(counter.sum()).isEqualTo(5);
+        assertThat(counter.drain()).isEqualTo(5);
+        assertThat(counter.sum()).isZero();
+    }
+
+    @Test
+    public void sum_DuringRebalances_AlwaysSeesTheWholeTotal() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(8);
+        counter.reset(1_000);
+        Thread rebalancer = new Thread(() -> {
+            // Every attempt asks for more than there is, so it drains and spreads the same total again
+            for (int i = 0; i < 20_000; i++) {
+                counter.tryDecrement(1_001);
+            }
+        });
+        rebalancer.start();
+        while (rebalancer.isAlive()) {
+            assertThat(counter.sum()).isEqualTo(1_000);
+        }
+        rebalancer.join();
+        assertThat(counter.sum()).isEqualTo(1_000);
+    }
+
+    @Test
+    public void tryDecrement_ManyThreads_SellsExactlyTheStockAndNeverGoesNegative() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(16);
+        counter.reset(10_000);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 64; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (counter.tryDecrement(1 + i % 3)) {
+                            sold.addAndGet(1 + i % 3);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(counter.sum()).isGreaterThanOrEqualTo(0);
+        assertThat(sold.get() + counter.sum()).isEqualTo(10_000);
+        // Demand (64 threads x 1000 units) exceeds stock, so only a remainder below 3 units can be left
+        assertThat(counter.sum()).isLessThan(3);
+    }
+}
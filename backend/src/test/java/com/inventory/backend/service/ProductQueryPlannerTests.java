@@ -0,0 +1,251 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductPage;
+import com.inventory.backend.repository.ProductJsonCache;
+import com.inventory.backend.repository.ProductRepositoryImpl;
+import com.inventory.backend.repository.ProductStatistics;
+import com.inventory.backend.service.ProductQueryPlanner.AccessPath;
+import com.inventory.backend.service.ProductQueryPlanner.Plan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ProductQueryPlannerTests {
+    private static final String[] CATEGORIES = { "Electronics", "Clothing", "Food", "Toys", "Garden" };
+
+    private ProductRepositoryImpl productRepository;
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository = new ProductRepositoryImpl(new ProductJsonCache());
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            // Toys are rare, everything else is spread evenly
+            String category = i % 100 == 0 ? "Toys" : CATEGORIES[random.nextInt(CATEGORIES.length)];
+            if ("Toys".equals(category) && i % 100 != 0) {
+                category = "Garden";
+            }
+            LocalDate expirationDate = i % 3 == 0 ? null : LocalDate.of(2027, 1, 1).plusDays(random.nextInt(365));
+            productRepository.save(new Product("Product " + i, category,
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2), expirationDate, random.nextInt(4)));
+        }
+        productService = new ProductServiceImpl(productRepository, null);
+    }
+
+    @Test
+    public void plan_RareCategory_DrivesFromCategoryPostings() {
+        Plan plan = plan(ProductQuery.of(null, "toy", true), PageRequest.of(0, 10));
+
+        assertThat(plan.accessPath()).isEqualTo(AccessPath.CATEGORY_POSTINGS);
+        assertThat(plan.categories()).containsExactly("Toys");
+        assertThat(plan.filters()).extracting(estimate -> estimate.condition().field()).containsExactly("inStock");
+    }
+
+    @Test
+    public void plan_UnselectiveFilters_ScansAndOrdersFiltersByCostPerRejectedRow() {
+        Plan plan = plan(ProductQuery.of("product", "o", true), PageRequest.of(0, 10));
+
+        assertThat(plan.accessPath()).isEqualTo(AccessPath.FULL_SCAN);
+        // In stock keeps 3 in 4 but costs least, the name guess keeps 1 in 10, "o" keeps 4 categories in 5
+        assertThat(plan.filters()).extracting(estimate -> estimate.condition().field())
+                .containsExactly("inStock", "name", "category");
+    }
+
+    @Test
+    public void plan_OutOfStockOnly_DrivesFromStockBitmap() {
+        Plan plan = plan(ProductQuery.of(null, null, false), PageRequest.of(0, 10));
+
+        assertThat(plan.accessPath()).isEqualTo(AccessPath.STOCK_BITMAP);
+        assertThat(plan.filters()).isEmpty();
+    }
+
+    @Test
+    public void plan_NarrowPriceRange_DrivesFromPriceIndex() {
+        ProductQuery query = new ProductQuery(null, null, true, new BigDecimal("10.00"), new BigDecimal("20.00"),
+                null, null, null, null, null);
+
+        assertThat(plan(query, PageRequest.of(0, 10)).accessPath()).isEqualTo(AccessPath.UNIT_PRICE_INDEX);
+    }
+
+    @Test
+    public void plan_SmallPage_UsesTopKAndDeepPageSortsEverything() {
+        Pageable sorted = PageRequest.of(0, 10, Sort.by("unitPrice"));
+
+        assertThat(plan(ProductQuery.of(null, null, null), sorted).topK()).isTrue();
+        assertThat(plan(ProductQuery.of(null, null, null), PageRequest.of(150, 10, Sort.by("unitPrice"))).topK())
+                .isFalse();
+        // Unsorted pages are ordered by ID, which a small page takes through the heap as well
+        assertThat(plan(ProductQuery.of(null, null, null), PageRequest.of(0, 10)).topK()).isTrue();
+        assertThat(plan(ProductQuery.of(null, null, null), PageRequest.of(0, 10)).explain().sort())
+                .isEqualTo("id top-k");
+    }
+
+    @Test
+    public void plan_NoStatistics_FallsBackToRangeIndexOrFullScan() {
+        ProductQuery query = new ProductQuery(null, "food", null, null, null, null, LocalDate.of(2027, 6, 1), null,
+                null, null);
+
+        Plan plan = ProductQueryPlanner.plan(query, PageRequest.of(0, 10), null);
+
+        assertThat(plan.accessPath()).isEqualTo(AccessPath.EXPIRATION_DATE_INDEX);
+        assertThat(plan.filters()).extracting(estimate -> estimate.condition().field()).containsExactly("category");
+    }
+
+    @Test
+    public void listProducts_EveryPlan_ReturnsSameResultsAsFullScan() {
+        assertSameResultsAsFullScan();
+    }
+
+    @Test
+    public void listProducts_IndexesStillBuilding_UsesRuleBasedPlanWithSameResults() {
+        ProductRepositoryImpl restored = new ProductRepositoryImpl(new ProductJsonCache()) {
+            @Override
+            public ProductStatistics getStatistics() {
+                // As while the indexes are built in the background after a restore
+                return null;
+            }
+        };
+        restored.restore(productRepository.findAll());
+        productRepository = restored;
+        productService = new ProductServiceImpl(restored, null);
+        ReflectionTestUtils.setField(productService, "explainEnabled", true);
+
+        ProductPage page = (ProductPage) productService.listProducts(new ProductQuery(null, "food", null, null, null,
+                null, LocalDate.of(2027, 6, 1), null, true, null), PageRequest.of(0, 10));
+
+        assertThat(page.getPlan().accessPath()).isEqualTo("EXPIRATION_DATE_INDEX");
+        assertThat(page.getPlan().catalogSize()).isEqualTo(-1);
+        assertSameResultsAsFullScan();
+    }
+
+    private void assertSameResultsAsFullScan() {
+        List<ProductQuery> queries = List.of(
+                ProductQuery.of(null, "toy", null),
+                ProductQuery.of("1", "o", false),
+                ProductQuery.of(null, null, true),
+                new ProductQuery(null, "e", null, new BigDecimal("50.00"), new BigDecimal("75.00"), null, null, null,
+                        null, null),
+                new ProductQuery(null, null, false, null, null, LocalDate.of(2027, 2, 1), LocalDate.of(2027, 1, 10),
+                        null, null, null),
+                new ProductQuery("product", null, null, new BigDecimal("900.00"), null, null, null, null, null, null));
+        List<Pageable> pages = List.of(PageRequest.of(0, 10, Sort.by("unitPrice")),
+                PageRequest.of(2, 7, Sort.by(Sort.Order.desc("expirationDate"), Sort.Order.asc("name"))),
+                PageRequest.of(0, 5000, Sort.by("stock")), PageRequest.of(1, 10));
+
+        for (ProductQuery query : queries) {
+            for (Pageable pageable : pages) {
+                Page<Product> planned = productService.listProducts(query, pageable);
+                List<Product> expected = fullScan(query, pageable);
+
+                assertThat(planned.getContent()).as("%s %s", query, pageable).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void listProducts_LaterPageWithSnapshot_ReadsTheFirstPagesVersion() {
+        ProductQuery query = ProductQuery.of(null, "food", true);
+        Pageable secondPage = PageRequest.of(1, 20, Sort.by("unitPrice"));
+        List<String> expected = fullScan(query, secondPage).stream()
+                .map(product -> product.getId() + ":" + product.getStock()).toList();
+
+        ProductPage firstPage = (ProductPage) productService.listProducts(query, PageRequest.of(0, 20, Sort.by("unitPrice")));
+        // Shift every row of the second page and change one of them
+        productRepository.deleteById(firstPage.getContent().get(0).getId());
+        productRepository.deleteById(firstPage.getContent().get(1).getId());
+        productRepository.save(new Product("Cheaper", "Food", new BigDecimal("0.01"), null, 1));
+        Product onSecondPage = productRepository.findById(Integer.valueOf(expected.get(0).split(":")[0])).orElseThrow();
+        onSecondPage.setStock(onSecondPage.getStock() + 10);
+        productRepository.save(onSecondPage);
+
+        ProductQuery snapshotQuery = new ProductQuery(null, "food", true, null, null, null, null, null, null,
+                firstPage.getSnapshot());
+        Page<Product> page = productService.listProducts(snapshotQuery, secondPage);
+
+        assertThat(page.getContent()).extracting(product -> product.getId() + ":" + product.getStock())
+                .isEqualTo(expected);
+        assertThat(page.getTotalElements()).isEqualTo(firstPage.getTotalElements());
+        assertThat(productService.listProducts(query, secondPage).getContent())
+                .extracting(Product::getId).isNotEqualTo(page.getContent().stream().map(Product::getId).toList());
+    }
+
+    @Test
+    public void listProducts_UnsortedPriceRangePagedWithSnapshot_ListsEveryMatchOnceInIdOrder() {
+        ProductQuery query = new ProductQuery(null, null, null, new BigDecimal("100.00"), new BigDecimal("400.00"),
+                null, null, null, null, null);
+        List<Integer> expected = fullScan(query, PageRequest.of(0, Integer.MAX_VALUE)).stream()
+                .map(Product::getId).toList();
+
+        ProductPage firstPage = (ProductPage) productService.listProducts(query, PageRequest.of(0, 25));
+        List<Integer> paged = new ArrayList<>(firstPage.getContent().stream().map(Product::getId).toList());
+        // Moves a product into the range after the first page, which the snapshot must not show
+        Integer outsideId = productRepository.findAll().stream()
+                .filter(product -> product.getUnitPrice().compareTo(new BigDecimal("400.00")) > 0)
+                .findFirst().orElseThrow().getId();
+        Product outside = productRepository.findById(outsideId).orElseThrow();
+        outside.setUnitPrice(new BigDecimal("150.00"));
+        productRepository.save(outside);
+        ProductQuery snapshotQuery = new ProductQuery(null, null, null, new BigDecimal("100.00"),
+                new BigDecimal("400.00"), null, null, null, null, firstPage.getSnapshot());
+        for (int page = 1; page < firstPage.getTotalPages(); page++) {
+            paged.addAll(productService.listProducts(snapshotQuery, PageRequest.of(page, 25)).getContent().stream()
+                    .map(Product::getId).toList());
+        }
+
+        assertThat(expected).hasSizeGreaterThan(50);
+        assertThat(paged).isEqualTo(expected);
+    }
+
+    @Test
+    public void plan_Snapshot_ScansTheSnapshotWithEveryFilter() {
+        ProductQuery query = ProductQuery.of("product", "toy", false);
+        Plan plan = ProductQueryPlanner.snapshotPlan(query, PageRequest.of(0, 10));
+
+        assertThat(plan.accessPath()).isEqualTo(AccessPath.SNAPSHOT_SCAN);
+        assertThat(plan.filters()).extracting(estimate -> estimate.condition().field())
+                .containsExactlyInAnyOrder("name", "category", "inStock");
+    }
+
+    private Plan plan(ProductQuery query, Pageable pageable) {
+        ProductStatistics statistics = productRepository.getStatistics();
+        return ProductQueryPlanner.plan(query, pageable, statistics);
+    }
+
+    // Reference answer: filter everything, sort everything, then page
+    private List<Product> fullScan(ProductQuery query, Pageable pageable) {
+        Comparator<Product> comparator = Comparator.comparing(product -> 0);
+        for (Sort.Order order : pageable.getSort()) {
+            Comparator<Product> byField = switch (order.getProperty()) {
+                case "unitPrice" -> Comparator.comparing(Product::getUnitPrice);
+                case "stock" -> Comparator.comparing(Product::getStock);
+                case "name" -> Comparator.comparing(Product::getName);
+                default -> Comparator.comparing(Product::getExpirationDate,
+                        Comparator.nullsLast(LocalDate::compareTo));
+            };
+            byField = order.isDescending() ? byField.reversed() : byField;
+            comparator = comparator.thenComparing(byField);
+        }
+        return productRepository.findAll().stream()
+                .filter(ProductFilter.compile(query))
+                .sorted(comparator.thenComparing(Product::getId))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+}
@@ -1,9 +1,13 @@
 package com.inventory.backend.service;
 
 import com.inventory.backend.model.Product;
+import com.inventory.backend.model.ProductLookup;
+import com.inventory.backend.model.ProductPage;
+import com.inventory.backend.model.ProductSearchResult;
+import com.inventory.backend.model.QueryPlan;
+import com.inventory.backend.model.StockHistory;
 import com.inventory.backend.repository.ProductRepository;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
+import com.inventory.backend.repository.ProductStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,8 +15,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -26,7 +33,7 @@ public class ProductServiceTests {
     private ProductRepository productRepository;
 
     @Mock
-    private Validator validator;
+    private ProductValidator productValidator;
 
     @InjectMocks
     private ProductServiceImpl productService;
@@ -56,21 +63,20 @@ public class ProductServiceTests {
 
     @Test
     public void createProduct_ValidProduct_ReturnsSavedProduct() {
-        when(validator.validate(any(Product.class))).thenReturn(Collections.emptySet());
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         Product savedProduct = productService.createProduct(product);
 
         assertThat(savedProduct).isNotNull();
         assertThat(savedProduct.getId()).isEqualTo(1);
+        verify(productValidator, times(1)).validate(product);
         verify(productRepository, times(1)).save(product);
     }
 
     @Test
     public void createProduct_InvalidProduct_ThrowsException() {
-        Set<ConstraintViolation<Product>> violations = new HashSet<>();
-        violations.add(mock(ConstraintViolation.class));
-        when(validator.validate(any(Product.class))).thenReturn(violations);
+        doThrow(new IllegalArgumentException("Validation error: name: Name is required"))
+                .when(productValidator).validate(any(Product.class));
 
         assertThatThrownBy(() -> productService.createProduct(product)).isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Validation error");
@@ -105,8 +111,7 @@ public class ProductServiceTests {
                 new BigDecimal("25.00"), LocalDate.now().plusDays(60), 150);
 
         when(productRepository.findById(1)).thenReturn(Optional.of(product));
-        when(validator.validate(any(Product.class))).thenReturn(Collections.emptySet());
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.save(any(Product.class), anyInt())).thenReturn(product);
 
         Product result = productService.updateProduct(1, updatedDetails);
 
@@ -116,7 +121,8 @@ public class ProductServiceTests {
         assertThat(result.getExpirationDate()).isEqualTo(LocalDate.now().plusDays(60));
         assertThat(result.getStock()).isEqualTo(150);
         verify(productRepository, times(1)).findById(1);
-        verify(productRepository, times(1)).save(product);
+        // Saved against the stock it was read with
+        verify(productRepository, times(1)).save(product, 100);
     }
 
     @Test
@@ -130,7 +136,7 @@ public class ProductServiceTests {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Product with ID 999 not found");
         verify(productRepository, times(1)).findById(999);
-        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository, never()).save(any(Product.class), anyInt());
     }
 
     @Test
@@ -208,6 +214,249 @@ public class ProductServiceTests {
         verify(productRepository, times(1)).findAll();
     }
 
+    @Test
+    public void listProducts_FilterByCategoryAndOutOfStock_ReturnsFilteredProducts() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+        when(productRepository.findAll()).thenReturn(productList);
+
+        Page<Product> result = productService.listProducts(null, "ELEC", false, pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getName()).isEqualTo("Laptop");
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void listProducts_AboveParallelThreshold_ReturnsSameResultsAsSequential() {
+        // Large enough that the parallel stream splits and the collector merges partial results
+        List<Product> catalog = new ArrayList<>();
+        String[] categories = { "Food", "Electronics", "Clothing" };
+        for (int i = 0; i < 20_000; i++) {
+            Product item = new Product("Item " + i, categories[i % 3], new BigDecimal("9.99"), null, i % 5);
+            item.setId(i);
+            catalog.add(item);
+        }
+        when(productRepository.findAll()).thenReturn(catalog);
+        ProductQuery query = new ProductQuery("item 1", null, true, null, null, null, null,
+                Set.of("category", "inStock"), null, null);
+        Pageable pageable = PageRequest.of(3, 50, Sort.by("category", "name"));
+
+        ReflectionTestUtils.setField(productService, "parallelThreshold", Integer.MAX_VALUE);
+        ProductPage sequential = (ProductPage) productService.listProducts(query, pageable);
+        ReflectionTestUtils.setField(productService, "parallelThreshold", 0);
+        ReflectionTestUtils.setField(productService, "processors", 2);
+        ProductPage parallel = (ProductPage) productService.listProducts(query, pageable);
+
+        assertThat(parallel.getContent()).hasSize(50).isEqualTo(sequential.getContent());
+        assertThat(parallel.getTotalElements()).isEqualTo(sequential.getTotalElements());
+        assertThat(parallel.getFacets()).isEqualTo(sequential.getFacets());
+    }
+
+    @Test
+    public void listProducts_PriceRange_ScansPriceIndexAndAppliesOtherFilters() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("unitPrice"));
+        when(productRepository.findByUnitPriceBetween(new BigDecimal("1.00"), new BigDecimal("20.00")))
+                .thenReturn(List.of(product, productList.get(1)));
+        ProductQuery query = new ProductQuery(null, null, true, new BigDecimal("1.00"), new BigDecimal("20.00"),
+                LocalDate.now().plusDays(60), null, null, null, null);
+
+        Page<Product> result = productService.listProducts(query, pageable);
+
+        // Rice has no expiration date, so only the first product passes expiresBefore
+        assertThat(result.getContent()).containsExactly(product);
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    public void listProducts_WriteDuringFirstPage_ReadsIndexAsOfSnapshot() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("unitPrice"));
+        List<Product> candidates = List.of(product, productList.get(1));
+        when(productRepository.openSnapshot()).thenReturn(5L);
+        when(productRepository.lastVersion()).thenReturn(6L);
+        when(productRepository.findByUnitPriceBetween(new BigDecimal("1.00"), new BigDecimal("20.00")))
+                .thenReturn(candidates);
+        when(productRepository.findAllAsOf(5L, candidates)).thenReturn(List.of(productList.get(1)));
+        ProductQuery query = new ProductQuery(null, null, null, new BigDecimal("1.00"), new BigDecimal("20.00"),
+                null, null, null, null, null);
+
+        ProductPage result = (ProductPage) productService.listProducts(query, pageable);
+
+        assertThat(result.getContent()).containsExactly(productList.get(1));
+        assertThat(result.getSnapshot()).isEqualTo(5L);
+        verify(productRepository, never()).findAllAsOf(anyLong());
+    }
+
+    @Test
+    public void listProducts_ExpirationRange_ScansExpirationIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDate today = LocalDate.now();
+        when(productRepository.findByExpirationDateBetween(today, null)).thenReturn(List.of(product));
+
+        Page<Product> result = productService.listProducts(
+                new ProductQuery(null, "cat", null, null, null, null, today, null, null, null), pageable);
+
+        assertThat(result.getContent()).containsExactly(product);
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    public void listProducts_MinPriceAboveMaxPrice_ThrowsException() {
+        ProductQuery query = new ProductQuery(null, null, null, new BigDecimal("10"), new BigDecimal("5"), null, null,
+                null, null, null);
+
+        assertThatThrownBy(() -> productService.listProducts(query, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("minPrice must not be greater than maxPrice");
+    }
+
+    @Test
+    public void listProducts_Facets_CountsWholeMatchSetNotJustThePage() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("name"));
+        when(productRepository.findAll()).thenReturn(productList);
+        ProductQuery query = new ProductQuery("a", null, null, null, null, null, null, Set.of("category", "inStock"),
+                null, null);
+
+        Page<Product> result = productService.listProducts(query, pageable);
+
+        assertThat(result.getContent()).extracting(Product::getName).containsExactly("Laptop");
+        assertThat(((ProductPage) result).getFacets())
+                .containsEntry("category", Map.of("Category", 1L, "Electronics", 1L))
+                .containsEntry("inStock", Map.of("true", 1L, "false", 1L));
+    }
+
+    @Test
+    public void listProducts_UnknownFacet_ThrowsException() {
+        ProductQuery query = new ProductQuery(null, null, null, null, null, null, null, Set.of("color"), null, null);
+
+        assertThatThrownBy(() -> productService.listProducts(query, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown facet: color");
+    }
+
+    @Test
+    public void listProducts_SelectiveCategory_ReadsCategoryPostingsAndExplainsPlan() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ProductStatistics statistics = new ProductStatistics(1000, Map.of("Electronics", 10, "Food", 990), 900, 100,
+                new ProductStatistics.KeyRange(1, 1200, 1000), new ProductStatistics.KeyRange(0, 0, 0));
+        when(productRepository.getStatistics()).thenReturn(statistics);
+        when(productRepository.findByCategoryIn(List.of("Electronics"))).thenReturn(List.of(productList.get(2)));
+        ReflectionTestUtils.setField(productService, "explainEnabled", true);
+
+        Page<Product> result = productService.listProducts(
+                new ProductQuery(null, "elec", null, null, null, null, null, null, true, null), pageable);
+
+        assertThat(result.getContent()).extracting(Product::getName).containsExactly("Laptop");
+        QueryPlan plan = ((ProductPage) result).getPlan();
+        assertThat(plan.accessPath()).isEqualTo("CATEGORY_POSTINGS");
+        assertThat(plan.estimatedRows()).isEqualTo(10);
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    public void getStockHistory_RecentMovements_ComputesSellThroughOverWindow() {
+        Instant now = Instant.now();
+        StockHistory history = new StockHistory(1, 30,
+                List.of(new StockHistory.Movement(now.minus(Duration.ofDays(40)), 100),
+                        new StockHistory.Movement(now.minus(Duration.ofDays(5)), 20),
+                        new StockHistory.Movement(now.minus(Duration.ofDays(1)), -60)),
+                List.of(), null);
+        when(productRepository.findStockHistory(1)).thenReturn(Optional.of(history));
+
+        StockHistory.SellThrough sellThrough = productService.getStockHistory(1, 30).get().sellThrough();
+
+        // 70 in stock 30 days ago, 20 received, 60 sold
+        assertThat(sellThrough.received()).isEqualTo(20);
+        assertThat(sellThrough.sold()).isEqualTo(60);
+        assertThat(sellThrough.rate()).isEqualTo(60.0 / 90);
+    }
+
+    @Test
+    public void sellThrough_BucketStraddlingWindowStart_CountsItsShareInTheWindow() {
+        Instant since = Instant.parse("2026-03-10T18:00:00Z");
+        StockHistory history = new StockHistory(1, 100,
+                List.of(new StockHistory.Movement(Instant.parse("2026-03-11T06:00:00Z"), -10)),
+                List.of(new StockHistory.Bucket(Instant.parse("2026-03-09T00:00:00Z"), 50, 50),
+                        new StockHistory.Bucket(Instant.parse("2026-03-10T00:00:00Z"), 40, 80),
+                        new StockHistory.Bucket(Instant.parse("2026-03-11T00:00:00Z"), 0, 30)),
+                null);
+
+        StockHistory.SellThrough sellThrough = ProductServiceImpl.sellThrough(history, since, 1);
+
+        // A quarter of the March 10 bucket falls after 18:00, the March 11 one ends at the 06:00 movement
+        assertThat(sellThrough.received()).isEqualTo(10);
+        assertThat(sellThrough.sold()).isEqualTo(20 + 30 + 10);
+    }
+
+    @Test
+    public void getStockHistory_InvalidDays_ThrowsException() {
+        assertThatThrownBy(() -> productService.getStockHistory(1, 0)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Days must be between 1 and 365");
+    }
+
+    @Test
+    public void lookupProducts_MixedIds_ReturnsResultsInRequestOrderWithNotFoundMarkers() {
+        when(productRepository.findAllById(List.of(3, 42, 1))).thenReturn(Arrays.asList(productList.get(2), null, product));
+
+        ProductLookup lookup = productService.lookupProducts(List.of(3, 42, 1));
+
+        assertThat(lookup.results()).extracting(ProductLookup.Result::id, ProductLookup.Result::found)
+                .containsExactly(tuple(3, true), tuple(42, false), tuple(1, true));
+        assertThat(lookup.results().get(1).product()).isNull();
+        assertThat(lookup.found()).isEqualTo(2);
+        verify(productRepository, times(1)).findAllById(List.of(3, 42, 1));
+    }
+
+    @Test
+    public void lookupProducts_TooManyIds_ThrowsException() {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id <= 1000; id++) {
+            ids.add(id);
+        }
+
+        assertThatThrownBy(() -> productService.lookupProducts(ids)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Lookup takes between 1 and 1000 IDs");
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    public void getChanges_InvalidLimit_ThrowsException() {
+        assertThatThrownBy(() -> productService.getChanges(0, 1001)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Changes limit must be between 1 and 1000");
+    }
+
+    @Test
+    public void decrementStock_InsufficientStock_ThrowsException() {
+        when(productRepository.existsById(1)).thenReturn(true);
+        when(productRepository.decrementStock(1, 500)).thenReturn(false);
+
+        assertThatThrownBy(() -> productService.decrementStock(1, 500)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient stock for product with ID 1");
+    }
+
+    @Test
+    public void decrementStock_InvalidQuantity_ThrowsException() {
+        assertThatThrownBy(() -> productService.decrementStock(1, 0)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Decrement quantity must be greater than 0");
+
+        verify(productRepository, never()).decrementStock(anyInt(), anyInt());
+    }
+
+    @Test
+    public void searchProducts_BlankQuery_ThrowsException() {
+        assertThatThrownBy(() -> productService.searchProducts(" ", 20)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Search query is required");
+
+        verify(productRepository, never()).search(any(), anyInt());
+    }
+
+    @Test
+    public void searchProducts_ValidQuery_ReturnsRepositoryResults() {
+        List<ProductSearchResult> results = List.of(new ProductSearchResult(product, 1.0));
+        when(productRepository.search("product", 20)).thenReturn(results);
+
+        assertThat(productService.searchProducts("product", 20)).isEqualTo(results);
+    }
+
     @Test
     public void deleteProduct_ExistingId_DeletesProduct() {
         when(productRepository.existsById(1)).thenReturn(true);
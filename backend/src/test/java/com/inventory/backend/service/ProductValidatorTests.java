@@ -0,0 +1,97 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ProductValidatorTests {
+    private static ValidatorFactory validatorFactory;
+    private static Validator jakartaValidator;
+    private final ProductValidator productValidator = new ProductValidator();
+
+    @BeforeAll
+    public static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        jakartaValidator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    public static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    public void validate_MatchesJakartaValidatorOnEveryCombination() {
+        String[] texts = { null, "", " ", "\t\n", "\u2003", " a ", "Rice" };
+        BigDecimal[] prices = { null, new BigDecimal("-1"), BigDecimal.ZERO, new BigDecimal("0.009"),
+                new BigDecimal("0.01"), new BigDecimal("0.0100"), new BigDecimal("19.99") };
+        LocalDate today = LocalDate.now();
+        LocalDate[] dates = { null, today.minusYears(1), today.minusDays(1), today, today.plusDays(1) };
+        Integer[] stocks = { null, Integer.MIN_VALUE, -1, 0, 5 };
+
+        int valid = 0;
+        for (String name : texts) {
+            for (String category : texts) {
+                for (BigDecimal price : prices) {
+                    for (LocalDate date : dates) {
+                        for (Integer stock : stocks) {
+                            Product product = new Product(name, category, price, date, stock);
+                            Set<String> expected = jakartaErrors(product);
+                            assertThat(errors(product)).as("%s", product).isEqualTo(expected);
+                            valid += expected.isEmpty() ? 1 : 0;
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(valid).isGreaterThan(0);
+    }
+
+    @Test
+    public void validate_ListsViolationsInFieldOrder() {
+        Product product = new Product(" ", "Food", BigDecimal.ZERO, null, -1);
+
+        assertThatThrownBy(() -> productValidator.validate(product))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Validation error: name: Name is required; "
+                        + "unitPrice: Unit Price must be greater than 0; stock: Stock can not be negative");
+    }
+
+    // The Jakarta violations come as an unordered set, so only the parts of the message are compared
+    private Set<String> jakartaErrors(Product product) {
+        Set<ConstraintViolation<Product>> violations = jakartaValidator.validate(product);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private Set<String> errors(Product product) {
+        try {
+            productValidator.validate(product);
+            return new TreeSet<>();
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).startsWith("Validation error: ");
+            List<String> parts = new ArrayList<>(Arrays.asList(
+                    e.getMessage().substring("Validation error: ".length()).split("; ")));
+            return new TreeSet<>(parts);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventory.backend.service;
+
+import com.inventory.backend.model.Product;
+import com.inventory.backend.model.Reservation;
+import com.inventory.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationServiceTests {
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ReservationServiceImpl reservationService;
+
+    @Test
+    public void reserve_AvailableStock_HoldsStockUntilConfirmed() {
+        Product product = new Product("Rice", "Food", new BigDecimal("5.00"), null, 8);
+        when(productRepository.existsById(1)).thenReturn(true);
+        when(productRepository.reserveStock(1, 2)).thenReturn(true);
+        when(productRepository.confirmStock(1, 2)).thenReturn(product);
+
+        Reservation reservation = reservationService.reserve(1, 2, 60);
+        Product confirmedProduct = reservationService.confirm(1, reservation.id());
+
+        assertThat(confirmedProduct).isSameAs(product);
+        assertThat(reservationService.openReservations()).isZero();
+        // Confirmed reservations do not expire
+        assertThat(reservationService.expireReservations(System.currentTimeMillis() + 120_000)).isZero();
+        verify(productRepository, never()).releaseStock(anyInt(), anyInt());
+    }
+
+    @Test
+    public void reserve_InsufficientStock_ThrowsException() {
+        when(productRepository.existsById(1)).thenReturn(true);
+        when(productRepository.reserveStock(1, 5)).thenReturn(false);
+
+        assertThatThrownBy(() -> reservationService.reserve(1, 5, 60)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient stock for product with ID 1");
+    }
+
+    @Test
+    public void reserve_InvalidQuantity_ThrowsException() {
+        assertThatThrownBy(() -> reservationService.reserve(1, 0, 60)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Reservation quantity must be greater than 0");
+
+        verify(productRepository, never()).reserveStock(anyInt(), anyInt());
+    }
+
+    @Test
+    public void expireReservations_AfterTtl_ReleasesHeldStock() {
+        when(productRepository.existsById(1)).thenReturn(true);
+        when(productRepository.reserveStock(1, 3)).thenReturn(true);
+        Reservation reservation = reservationService.reserve(1, 3, 5);
+
+        assertThat(reservationService.expireReservations(System.currentTimeMillis())).isZero();
+        assertThat(reservationService.expireReservations(reservation.expiresAt().toEpochMilli() + 1_000)).isOne();
+
+        verify(productRepository, times(1)).releaseStock(1, 3);
+        assertThatThrownBy(() -> reservationService.confirm(1, reservation.id()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Reservation with ID " + reservation.id() + " not found");
+    }
+
+    @Test
+    public void release_TwiceOrForOtherProduct_ReleasesOnce() {
+        when(productRepository.existsById(1)).thenReturn(true);
+        when(productRepository.reserveStock(1, 1)).thenReturn(true);
+        Reservation reservation = reservationService.reserve(1, 1, 60);
+
+        assertThatThrownBy(() -> reservationService.release(2, reservation.id()))
+                .isInstanceOf(IllegalArgumentException.class);
+        reservationService.release(1, reservation.id());
+        assertThatThrownBy(() -> reservationService.release(1, reservation.id()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(productRepository, times(1)).releaseStock(1, 1);
+    }
+}
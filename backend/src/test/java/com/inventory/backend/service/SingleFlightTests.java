@@ -0,0 +1,108 @@
+package com.inventory.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SingleFlightTests {
+
+    @Test
+    public void run_ConcurrentEqualKeys_ShareOneComputation() throws Exception {
+        SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.run("query", 1, () -> {
+                    computations.incrementAndGet();
+                    awaitQuietly(release);
+                    return new Object();
+                })));
+            }
+            // Every caller is either computing or waiting for the computation
+            while (singleFlight.calls() < 8) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            Object first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(computations).hasValue(1);
+            assertThat(singleFlight.sharedCalls()).isEqualTo(7);
+            assertThat(singleFlight.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void run_NewerVersion_DoesNotJoinOlderComputation() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> before = executor.submit(() -> singleFlight.run("query", 1, () -> {
+                awaitQuietly(release);
+                return "before write";
+            }));
+            while (singleFlight.inFlight() == 0) {
+                Thread.sleep(1);
+            }
+
+            assertThat(singleFlight.run("query", 2, () -> "after write")).isEqualTo("after write");
+            release.countDown();
+            assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+            assertThat(singleFlight.sharedCalls()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void run_ComputationFails_JoinedCallsFailToo() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> singleFlight.run("query", 1, () -> {
+                    awaitQuietly(release);
+                    throw new IllegalArgumentException("Unknown facet: color");
+                })));
+            }
+            while (singleFlight.calls() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(IllegalArgumentException.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
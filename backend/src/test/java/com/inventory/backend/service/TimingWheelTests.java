@@ -0,0 +1,73 @@
+package com.inventory.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TimingWheelTests {
+
+    @Test
+    public void advance_PastDeadline_ExpiresOnlyDueTimeouts() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("early", 250);
+        wheel.schedule("late", 420);
+
+        assertThat(wheel.advance(250)).isEmpty();
+        assertThat(wheel.advance(300)).containsExactly("early");
+        assertThat(wheel.advance(500)).containsExactly("late");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void advance_DeadlineSeveralRotationsAway_WaitsForItsRotation() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        // Tick 3 and tick 27 share slot 3
+        wheel.schedule("soon", 300);
+        wheel.schedule("rotations", 2_700);
+
+        assertThat(wheel.advance(300)).containsExactly("soon");
+        assertThat(wheel.advance(2_600)).isEmpty();
+        assertThat(wheel.advance(2_700)).containsExactly("rotations");
+    }
+
+    @Test
+    public void cancel_ScheduledTimeout_NeverExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        TimingWheel.Timeout<String> first = wheel.schedule("first", 300);
+        wheel.schedule("second", 300);
+        TimingWheel.Timeout<String> third = wheel.schedule("third", 300);
+
+        assertThat(wheel.cancel(first)).isTrue();
+        assertThat(wheel.cancel(third)).isTrue();
+        assertThat(wheel.cancel(third)).isFalse();
+        assertThat(wheel.advance(1_000)).containsExactly("second");
+    }
+
+    @Test
+    public void schedule_DeadlineAlreadyPassed_ExpiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.advance(1_000);
+
+        wheel.schedule("overdue", 500);
+
+        assertThat(wheel.advance(1_000)).isEmpty();
+        assertThat(wheel.advance(1_100)).containsExactly("overdue");
+    }
+
+    @Test
+    public void advance_ManyTimeouts_ExpiresEachExactlyOnce() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 64, 0);
+        for (int i = 0; i < 100_000; i++) {
+            wheel.schedule(i, 1 + i % 5_000);
+        }
+
+        int expired = 0;
+        for (long now = 0; now <= 5_000; now += 7) {
+            expired += wheel.advance(now).size();
+        }
+        expired += wheel.advance(5_010).size();
+
+        assertThat(expired).isEqualTo(100_000);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,216 @@
+package com.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * The requests the frontend sends, timed per request type. One instance per
+ * simulated user; the {@link HttpClient} is shared. The first request of an
+ * action can be timed from when the action was due rather than when it was
+ * sent, so a backed-up server shows in the latencies of a paced run instead of
+ * only in a lower request rate.
+ */
+final class InventoryClient {
+    static final String[] CATEGORIES = { "Food", "Clothing", "Electronics" };
+    static final String[] TERMS = { "rice", "beans", "coffee", "shirt", "jacket", "socks", "laptop", "phone",
+            "cable", "monitor", "juice", "boots" };
+    private static final String[] ADJECTIVES = { "Organic", "Classic", "Premium", "Compact", "Fresh", "Wireless" };
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_SHED_ATTEMPTS = 10;
+
+    private final HttpClient http;
+    private final URI baseUrl;
+    private final ObjectMapper mapper;
+    private final Map<String, RequestStats> stats = new TreeMap<>();
+    private boolean measuring;
+    private long actionStartNanos;
+    private long retryAfterSeconds;
+
+    InventoryClient(HttpClient http, URI baseUrl, ObjectMapper mapper) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.mapper = mapper;
+    }
+
+    Map<String, RequestStats> stats() {
+        return stats;
+    }
+
+    void setMeasuring(boolean measuring) {
+        this.measuring = measuring;
+    }
+
+    /** The longest {@code Retry-After} of the requests shed since the last call, 0 if none was shed. */
+    long takeRetryAfterSeconds() {
+        long seconds = retryAfterSeconds;
+        retryAfterSeconds = 0;
+        return seconds;
+    }
+
+    /** Times the next request from {@code dueNanos} instead of from when it is sent. */
+    void startAction(long dueNanos) {
+        actionStartNanos = dueNanos;
+    }
+
+    // fetchProducts of the product table: 10 per page sorted by name
+    JsonNode listPage(String type, String filter, int page, int size) {
+        String query = (filter.isEmpty() ? "" : filter + "&") + "page=" + page + "&size=" + size + "&sort=name,asc";
+        return json(send(type, get("/products?" + query)));
+    }
+
+    // The table followed by handleMetrics: in-stock products of each category, 100 sorted by name
+    void pageView() {
+        listPage("list", "", 0, 10);
+        for (String category : CATEGORIES) {
+            listPage("metrics", "category=" + category + "&inStock=true", 0, 100);
+        }
+    }
+
+    void search(String term) {
+        listPage("search", "name=" + URLEncoder.encode(term, StandardCharsets.UTF_8), 0, 10);
+    }
+
+    void pointRead(int id) {
+        send("get", get("/products/" + id));
+    }
+
+    void edit(int id, Random random) {
+        JsonNode product = json(send("get", get("/products/" + id)));
+        if (product instanceof ObjectNode editable) {
+            editable.put("unitPrice", price(random));
+            send("update", HttpRequest.newBuilder(uri("/products/" + id)).timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(editable.toString())).build());
+        }
+        pageView();
+    }
+
+    void changeStock(int id, boolean inStock) {
+        HttpRequest request = inStock
+                ? HttpRequest.newBuilder(uri("/products/" + id + "/instock?quantity=10")).timeout(REQUEST_TIMEOUT)
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build()
+                : HttpRequest.newBuilder(uri("/products/" + id + "/outofstock")).timeout(REQUEST_TIMEOUT)
+                        .POST(HttpRequest.BodyPublishers.noBody()).build();
+        send("stock", request);
+        pageView();
+    }
+
+    /** Creates a product derived from {@code random} and returns its ID, or -1 if it was not created. */
+    int create(Random random) {
+        ObjectNode product = mapper.createObjectNode();
+        String term = TERMS[random.nextInt(TERMS.length)];
+        product.put("name", ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + Character.toUpperCase(term.charAt(0)) + term.substring(1) + " " + random.nextInt(10_000));
+        product.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        product.put("unitPrice", price(random));
+        if (random.nextBoolean()) {
+            product.put("expirationDate", LocalDate.now().plusDays(30 + random.nextInt(700)).toString());
+        }
+        product.put("stock", random.nextInt(5) == 0 ? 0 : random.nextInt(200));
+        HttpRequest request = HttpRequest.newBuilder(uri("/products")).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(product.toString())).build();
+        // Seeding must not lose products to load shedding
+        HttpResponse<String> response = exchangeAdmitted(request);
+        JsonNode created = json(response != null && response.statusCode() / 100 == 2 ? response : null);
+        return created != null && created.hasNonNull("id") ? created.get("id").asInt() : -1;
+    }
+
+    /** The first {@code size} products by ID, waiting out load shedding; null if the backend did not answer. */
+    JsonNode existingProducts(int size) {
+        HttpResponse<String> response = exchangeAdmitted(get("/products?page=0&size=" + size));
+        return json(response != null && response.statusCode() / 100 == 2 ? response : null);
+    }
+
+    private static BigDecimal price(Random random) {
+        return BigDecimal.valueOf(50 + random.nextInt(50_000), 2);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    // Records the request under its type; returns the response if it was a 2xx, null otherwise
+    private HttpResponse<String> send(String type, HttpRequest request) {
+        long start = actionStartNanos != 0 ? actionStartNanos : System.nanoTime();
+        actionStartNanos = 0;
+        HttpResponse<String> response = exchange(request);
+        if (response != null && (response.statusCode() == 429 || response.statusCode() == 503)) {
+            retryAfterSeconds = Math.max(retryAfterSeconds,
+                    response.headers().firstValueAsLong("Retry-After").orElse(1));
+        }
+        // A request cut short because the run is being stopped says nothing about the server
+        if (measuring && !Thread.currentThread().isInterrupted()) {
+            RequestStats requestStats = stats.computeIfAbsent(type, key -> new RequestStats());
+            requestStats.latencies.record((System.nanoTime() - start) / 1000);
+            int status = response == null ? 0 : response.statusCode();
+            if (status == 429 || status == 503) {
+                requestStats.shed++;
+            } else if (status < 200 || status >= 300) {
+                requestStats.errors++;
+            }
+        }
+        return response != null && response.statusCode() / 100 == 2 ? response : null;
+    }
+
+    // Like exchange, but a shed request waits as told and tries again
+    private HttpResponse<String> exchangeAdmitted(HttpRequest request) {
+        for (int attempt = 0; attempt < MAX_SHED_ATTEMPTS; attempt++) {
+            HttpResponse<String> response = exchange(request);
+            int status = response == null ? 0 : response.statusCode();
+            if (status != 429 && status != 503) {
+                return response;
+            }
+            long retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            try {
+                Thread.sleep(retryAfterSeconds * 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // The response, or null when there was none
+    private HttpResponse<String> exchange(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        if (response == null || response.body().isEmpty()) {
+            return null;
+        }
+        try {
+            return mapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
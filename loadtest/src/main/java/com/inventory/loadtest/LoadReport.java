@@ -0,0 +1,92 @@
+package com.inventory.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Throughput and latency percentiles per request type, checked against the thresholds of the run. */
+final class LoadReport {
+    static final String ALL = "all";
+    private static final Map<String, Double> PERCENTILES = Map.of("maxP50Ms", 50.0, "maxP95Ms", 95.0,
+            "maxP99Ms", 99.0, "maxP999Ms", 99.9);
+
+    private final Map<String, RequestStats> stats = new TreeMap<>();
+    private final RequestStats all = new RequestStats();
+    private final Duration measured;
+    private final long actions;
+
+    LoadReport(List<Map<String, RequestStats>> workerStats, Duration measured, long actions) {
+        this.measured = measured;
+        this.actions = actions;
+        for (Map<String, RequestStats> worker : workerStats) {
+            worker.forEach((type, requestStats) -> {
+                stats.computeIfAbsent(type, key -> new RequestStats()).merge(requestStats);
+                all.merge(requestStats);
+            });
+        }
+    }
+
+    double throughput() {
+        return all.count() / (measured.toNanos() / 1e9);
+    }
+
+    double errorRate() {
+        return all.count() == 0 ? 0 : (double) (all.errors + all.shed) / all.count();
+    }
+
+    /** The thresholds that were exceeded, as readable lines; empty when the run passes. */
+    List<String> violations(Map<String, Double> thresholds) {
+        List<String> violations = new ArrayList<>();
+        thresholds.forEach((key, limit) -> {
+            if (limit <= 0) {
+                return;
+            }
+            if (key.equals("maxErrorRate")) {
+                if (errorRate() > limit) {
+                    violations.add(String.format("error rate %.4f > %s", errorRate(), limit));
+                }
+                return;
+            }
+            if (key.equals("minThroughput")) {
+                if (throughput() < limit) {
+                    violations.add(String.format("throughput %.1f req/s < %s", throughput(), limit));
+                }
+                return;
+            }
+            int dot = key.indexOf('.');
+            String percentileKey = dot < 0 ? key : key.substring(0, dot);
+            String type = dot < 0 ? ALL : key.substring(dot + 1);
+            Double percentile = PERCENTILES.get(percentileKey);
+            RequestStats typeStats = type.equals(ALL) ? all : stats.get(type);
+            if (percentile == null) {
+                violations.add("unknown threshold " + key);
+            } else if (typeStats == null) {
+                violations.add("no " + type + " requests for threshold " + key);
+            } else if (typeStats.latencies.percentile(percentile) / 1000.0 > limit) {
+                violations.add(String.format("%s p%s %.1f ms > %s ms", type, percentile,
+                        typeStats.latencies.percentile(percentile) / 1000.0, limit));
+            }
+        });
+        return violations;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nMeasured %.1f s: %d actions, %d requests, %.1f requests/s, error rate %.4f%n",
+                measured.toNanos() / 1e9, actions, all.count(), throughput(), errorRate());
+        out.printf("%-10s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n", "type", "count", "errors", "shed", "mean ms",
+                "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((type, requestStats) -> printRow(out, type, requestStats));
+        printRow(out, ALL, all);
+    }
+
+    private static void printRow(PrintStream out, String type, RequestStats requestStats) {
+        LatencyHistogram latencies = requestStats.latencies;
+        out.printf("%-10s %9d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", type, requestStats.count(),
+                requestStats.errors, requestStats.shed, latencies.mean() / 1000, latencies.percentile(50) / 1000.0,
+                latencies.percentile(95) / 1000.0, latencies.percentile(99) / 1000.0,
+                latencies.percentile(99.9) / 1000.0, latencies.max() / 1000.0);
+    }
+}
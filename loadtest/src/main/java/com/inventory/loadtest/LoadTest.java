@@ -0,0 +1,219 @@
+package com.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test of a running backend. Seeds the catalog through the
+ * API, then has {@code concurrency} simulated users repeat actions picked from
+ * the {@link TrafficMix} for the warmup and measured duration, and prints the
+ * throughput and latency percentiles per request type. Exits with 1 when a
+ * threshold is exceeded, 2 on bad arguments or an unreachable backend.
+ * <p>
+ * Without {@code --rate} every user starts its next action as soon as the last
+ * one finished (closed loop), which measures capacity. A user whose action was
+ * shed first waits out its {@code Retry-After}, as a client that backs off
+ * would, instead of flooding the backend with requests it just turned away.
+ * With a rate, actions are due on a fixed schedule and their first request is
+ * timed from when it was due, so the percentiles include the time actions
+ * waited behind a slow server.
+ * The same seed gives the same catalog and the same action sequence per user.
+ */
+public final class LoadTest {
+    // Slack after the planned end before users still running are interrupted
+    static final Duration OVERRUN_GRACE = Duration.ofMinutes(2);
+    // How long interrupted workers get to return
+    static final Duration INTERRUPT_GRACE = Duration.ofSeconds(30);
+
+    enum Shutdown {
+        FINISHED, INTERRUPTED, STUCK
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        System.exit(run(config, System.out));
+    }
+
+    static int run(LoadTestConfig config, PrintStream out) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ObjectMapper mapper = new ObjectMapper();
+        out.printf("Load test of %s: %d users, mix %s, %s warmup, %s measured, %s%n", config.baseUrl(),
+                config.concurrency(), config.mix(), config.warmup(), config.duration(),
+                config.rate() > 0 ? config.rate() + " actions/s" : "closed loop");
+
+        int[] ids = config.products() > 0 ? seed(config, http, mapper, out) : existingIds(config, http, mapper);
+        if (ids.length == 0) {
+            out.println("No products to work with, is the backend running at " + config.baseUrl() + "?");
+            return 2;
+        }
+
+        long start = System.nanoTime();
+        long measureStart = start + config.warmup().toNanos();
+        long end = measureStart + config.duration().toNanos();
+        AtomicLong actions = new AtomicLong();
+        List<InventoryClient> clients = new ArrayList<>();
+        ExecutorService users = Executors.newFixedThreadPool(config.concurrency());
+        for (int user = 0; user < config.concurrency(); user++) {
+            InventoryClient client = new InventoryClient(http, config.baseUrl(), mapper);
+            clients.add(client);
+            Random random = new Random(config.seed() + user);
+            users.execute(() -> runUser(config, client, random, ids, start, measureStart, end, actions));
+        }
+        Shutdown shutdown = shutdown(users, config.warmup().plus(config.duration()).plus(OVERRUN_GRACE),
+                INTERRUPT_GRACE, "users", out);
+        if (shutdown == Shutdown.STUCK) {
+            // Their stats are still being written, so there is nothing safe to report
+            return 1;
+        }
+        Duration measured = Duration.ofNanos(Math.min(System.nanoTime(), end) - measureStart);
+
+        List<Map<String, RequestStats>> stats = new ArrayList<>();
+        for (InventoryClient client : clients) {
+            stats.add(client.stats());
+        }
+        LoadReport report = new LoadReport(stats, measured, actions.get());
+        report.print(out);
+        List<String> violations = new ArrayList<>(report.violations(config.thresholds()));
+        if (shutdown == Shutdown.INTERRUPTED) {
+            violations.add("users were still running " + OVERRUN_GRACE.toSeconds() + " s after the run should have ended");
+        }
+        if (violations.isEmpty()) {
+            out.println("PASSED " + config.thresholds());
+            return 0;
+        }
+        violations.forEach(violation -> out.println("FAILED " + violation));
+        return 1;
+    }
+
+    private static void runUser(LoadTestConfig config, InventoryClient client, Random random, int[] ids,
+            long start, long measureStart, long end, AtomicLong actions) {
+        long interval = config.rate() > 0 ? (long) (config.concurrency() * 1e9 / config.rate()) : 0;
+        // Spread the users over the first interval so paced actions do not all fall due together
+        long next = start + (interval > 0 ? (long) (random.nextDouble() * interval) : 0);
+        while (!Thread.currentThread().isInterrupted()) {
+            long due = System.nanoTime();
+            if (interval > 0) {
+                while (due < next) {
+                    LockSupport.parkNanos(next - due);
+                    due = System.nanoTime();
+                }
+                due = next;
+                next += interval;
+            }
+            if (due >= end) {
+                return;
+            }
+            boolean measuring = due >= measureStart;
+            client.setMeasuring(measuring);
+            if (interval > 0) {
+                client.startAction(due);
+            }
+            perform(config.mix().pick(random), client, random, ids);
+            if (measuring) {
+                actions.incrementAndGet();
+            }
+            long retryAfter = TimeUnit.SECONDS.toNanos(client.takeRetryAfterSeconds());
+            if (interval == 0 && retryAfter > 0) {
+                LockSupport.parkNanos(Math.min(retryAfter, end - System.nanoTime()));
+            }
+        }
+    }
+
+    private static void perform(TrafficMix.Action action, InventoryClient client, Random random, int[] ids) {
+        switch (action) {
+            case PAGE_VIEW -> client.pageView();
+            case SEARCH -> client.search(InventoryClient.TERMS[random.nextInt(InventoryClient.TERMS.length)]);
+            case PAGE_THROUGH -> {
+                for (int page = 1; page <= 4; page++) {
+                    client.listPage("list", "", page, 10);
+                }
+            }
+            case EDIT -> client.edit(ids[random.nextInt(ids.length)], random);
+            case STOCK_CHANGE -> client.changeStock(ids[random.nextInt(ids.length)], random.nextBoolean());
+            case POINT_READ -> client.pointRead(ids[random.nextInt(ids.length)]);
+        }
+    }
+
+    // Product i is derived from the seed and i alone, so the catalog does not depend on thread timing
+    private static int[] seed(LoadTestConfig config, HttpClient http, ObjectMapper mapper, PrintStream out)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        int[] ids = new int[config.products()];
+        AtomicInteger nextProduct = new AtomicInteger();
+        ExecutorService seeders = Executors.newFixedThreadPool(config.concurrency());
+        for (int seeder = 0; seeder < config.concurrency(); seeder++) {
+            InventoryClient client = new InventoryClient(http, config.baseUrl(), mapper);
+            seeders.execute(() -> {
+                for (int i = nextProduct.getAndIncrement(); i < ids.length; i = nextProduct.getAndIncrement()) {
+                    ids[i] = client.create(new Random(config.seed() * 1_000_003 + i));
+                }
+            });
+        }
+        if (shutdown(seeders, Duration.ofHours(1), INTERRUPT_GRACE, "seeders", out) == Shutdown.STUCK) {
+            return new int[0];
+        }
+        int[] created = Arrays.stream(ids).filter(id -> id >= 0).toArray();
+        out.printf("Seeded %d of %d products in %.1f s%n", created.length, ids.length,
+                (System.nanoTime() - start) / 1e9);
+        return created;
+    }
+
+    /**
+     * Lets the submitted tasks finish within {@code timeout}, then interrupts
+     * the ones still running and waits up to {@code interruptGrace} for them to
+     * return. Only when this does not end in {@link Shutdown#STUCK} is
+     * everything the tasks wrote safe to read.
+     */
+    static Shutdown shutdown(ExecutorService pool, Duration timeout, Duration interruptGrace, String what,
+            PrintStream out) throws InterruptedException {
+        pool.shutdown();
+        if (pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            return Shutdown.FINISHED;
+        }
+        out.printf("%s still running after %d s, interrupting them%n", what, timeout.toSeconds());
+        pool.shutdownNow();
+        if (pool.awaitTermination(interruptGrace.toMillis(), TimeUnit.MILLISECONDS)) {
+            return Shutdown.INTERRUPTED;
+        }
+        out.printf("FAILED %s did not stop within %d s of being interrupted%n", what, interruptGrace.toSeconds());
+        return Shutdown.STUCK;
+    }
+
+    private static int[] existingIds(LoadTestConfig config, HttpClient http, ObjectMapper mapper) {
+        JsonNode page = new InventoryClient(http, config.baseUrl(), mapper).existingProducts(1000);
+        if (page == null || !page.has("content")) {
+            return new int[0];
+        }
+        int[] ids = new int[page.get("content").size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = page.get("content").get(i).get("id").asInt();
+        }
+        return ids;
+    }
+}
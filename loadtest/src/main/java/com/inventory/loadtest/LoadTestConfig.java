@@ -0,0 +1,90 @@
+package com.inventory.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of one load test run, parsed from {@code --key=value} arguments.
+ * Thresholds are {@code maxP50Ms}, {@code maxP95Ms}, {@code maxP99Ms} and
+ * {@code maxP999Ms} over all requests, or with a {@code .<request type>}
+ * suffix for one type (e.g. {@code --maxP99Ms.get=20}), plus
+ * {@code maxErrorRate} and {@code minThroughput} in requests per second.
+ */
+record LoadTestConfig(URI baseUrl, int products, int concurrency, Duration warmup, Duration duration,
+        double rate, long seed, TrafficMix mix, Map<String, Double> thresholds) {
+
+    static final String USAGE = """
+            Usage: LoadTest [--key=value ...]
+              --baseUrl=http://localhost:9090   backend to test
+              --products=2000                   products seeded through the API first (0 = use existing)
+              --concurrency=16                  simulated users
+              --warmup=10s --duration=30s       run length, warmup is not measured
+              --rate=0                          user actions per second over all users (0 = as fast as possible)
+              --seed=42                         random seed for the seeded catalog and the action sequence
+              --mix=pageView:50,search:15,pageThrough:15,edit:10,stockChange:10
+                                                also pointRead:<weight> for GET /products/{id} alone
+              --maxP99Ms=500 --maxP999Ms=0 --maxErrorRate=0.01 --minThroughput=0
+                                                thresholds that fail the run (0 = off), maxP..Ms.<type> per request type
+            """;
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Map<String, Double> thresholds = new LinkedHashMap<>();
+        thresholds.put("maxP99Ms", 500.0);
+        thresholds.put("maxErrorRate", 0.01);
+        options.entrySet().removeIf(option -> {
+            String key = option.getKey();
+            if (key.startsWith("maxP") || key.equals("maxErrorRate") || key.equals("minThroughput")) {
+                thresholds.put(key, Double.parseDouble(option.getValue()));
+                return true;
+            }
+            return false;
+        });
+
+        LoadTestConfig config = new LoadTestConfig(
+                URI.create(take(options, "baseUrl", "http://localhost:9090").replaceAll("/+$", "")),
+                Integer.parseInt(take(options, "products", "2000")),
+                Integer.parseInt(take(options, "concurrency", "16")),
+                duration(take(options, "warmup", "10s")),
+                duration(take(options, "duration", "30s")),
+                Double.parseDouble(take(options, "rate", "0")),
+                Long.parseLong(take(options, "seed", "42")),
+                TrafficMix.parse(take(options, "mix", TrafficMix.DEFAULT)),
+                thresholds);
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        if (config.concurrency <= 0 || config.products < 0 || config.duration.isZero()) {
+            throw new IllegalArgumentException("Concurrency and duration must be positive, products not negative");
+        }
+        return config;
+    }
+
+    private static String take(Map<String, String> options, String key, String defaultValue) {
+        String value = options.remove(key);
+        return value == null ? defaultValue : value;
+    }
+
+    // 500ms, 30s or 2m
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Expected a duration like 500ms, 30s or 2m, got " + value);
+        };
+    }
+}
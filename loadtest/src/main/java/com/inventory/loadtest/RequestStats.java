@@ -0,0 +1,20 @@
+package com.inventory.loadtest;
+
+/** Latencies and failures of one request type, per worker until merged. */
+final class RequestStats {
+    final LatencyHistogram latencies = new LatencyHistogram();
+    // Non-2xx answers other than load shedding, and requests that got no answer
+    long errors;
+    // 429 and 503 from the backend's admission control
+    long shed;
+
+    void merge(RequestStats other) {
+        latencies.merge(other.latencies);
+        errors += other.errors;
+        shed += other.shed;
+    }
+
+    long count() {
+        return latencies.count();
+    }
+}
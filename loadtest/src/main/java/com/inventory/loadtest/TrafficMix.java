@@ -0,0 +1,85 @@
+package com.inventory.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Relative weights of the user actions a simulated user picks from. The
+ * actions mirror what the frontend sends:
+ * <ul>
+ * <li>pageView: the product table ({@code fetchProducts}, 10 per page sorted by
+ * name) and the three category metrics calls of {@code ProductProvider}</li>
+ * <li>search: the table filtered by a name term</li>
+ * <li>pageThrough: pages 2 to 5 of the table</li>
+ * <li>edit: open a product, save it with a new price, refetch the page view</li>
+ * <li>stockChange: mark a product out of stock or back in stock, refetch the page view</li>
+ * <li>pointRead: open one product, as a client that links to a product page does (not in the default mix)</li>
+ * </ul>
+ */
+final class TrafficMix {
+    static final String DEFAULT = "pageView:50,search:15,pageThrough:15,edit:10,stockChange:10";
+
+    enum Action {
+        PAGE_VIEW("pageView"), SEARCH("search"), PAGE_THROUGH("pageThrough"), EDIT("edit"),
+        STOCK_CHANGE("stockChange"), POINT_READ("pointRead");
+
+        final String key;
+
+        Action(String key) {
+            this.key = key;
+        }
+    }
+
+    private final Map<Action, Integer> weights;
+    private final Action[] actions;
+    private final int[] cumulativeWeights;
+
+    private TrafficMix(Map<Action, Integer> weights) {
+        this.weights = weights;
+        this.actions = weights.keySet().toArray(Action[]::new);
+        this.cumulativeWeights = new int[actions.length];
+        int total = 0;
+        for (int i = 0; i < actions.length; i++) {
+            total += weights.get(actions[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Traffic mix needs at least one action with a positive weight");
+        }
+    }
+
+    static TrafficMix parse(String mix) {
+        Map<Action, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Action action = Arrays.stream(Action.values()).filter(candidate -> candidate.key.equals(parts[0]))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown action " + parts[0] + " in mix"));
+            int weight = parts.length == 2 ? Integer.parseInt(parts[1]) : -1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Expected action:weight with a weight >= 0, got " + entry);
+            }
+            weights.put(action, weight);
+        }
+        return new TrafficMix(weights);
+    }
+
+    Action pick(Random random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= ticket) {
+            i++;
+        }
+        return actions[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        weights.forEach((action, weight) -> text.append(text.length() == 0 ? "" : ",").append(action.key)
+                .append(':').append(weight));
+        return text.toString();
+    }
+}
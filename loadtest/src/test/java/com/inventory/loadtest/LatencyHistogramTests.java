@@ -0,0 +1,57 @@
+package com.inventory.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class LatencyHistogramTests {
+
+    @Test
+    public void percentile_IsWithinBucketPrecisionOfExactValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        Random random = new Random(7);
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal-ish spread from microseconds to seconds
+            values[i] = (long) Math.exp(random.nextGaussian() * 2 + 8);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] { 50, 95, 99, 99.9 }) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            assertThat(histogram.percentile(percentile)).as("p%s", percentile)
+                    .isBetween(exact, (long) (exact * 1.016) + 1);
+        }
+        assertThat(histogram.percentile(100)).isEqualTo(values[values.length - 1]);
+        assertThat(histogram.count()).isEqualTo(values.length);
+    }
+
+    @Test
+    public void index_CoversEveryValueWithContiguousBuckets() {
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.index(value);
+            assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+            assertThat(index == 0 || LatencyHistogram.highestValue(index - 1) < value).isTrue();
+        }
+        assertThat(LatencyHistogram.index((1L << 37) - 1)).isEqualTo(2047);
+    }
+
+    @Test
+    public void merge_AddsCountsOfBothHistograms() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(100);
+        second.record(5_000);
+        second.record(7_000);
+
+        first.merge(second);
+
+        assertThat(first.count()).isEqualTo(3);
+        assertThat(first.max()).isEqualTo(7_000);
+        assertThat(first.percentile(50)).isBetween(5_000L, 5_080L);
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class LoadTestConfigTests {
+
+    @Test
+    public void parse_ReadsOptionsAndPerTypeThresholds() {
+        LoadTestConfig config = LoadTestConfig.parse(new String[] { "--baseUrl=http://localhost:9191/",
+                "--duration=2m", "--warmup=500ms", "--mix=edit:1", "--maxP99Ms.get=20", "--maxErrorRate=0" });
+
+        assertThat(config.baseUrl()).hasToString("http://localhost:9191");
+        assertThat(config.duration()).isEqualTo(Duration.ofMinutes(2));
+        assertThat(config.warmup()).isEqualTo(Duration.ofMillis(500));
+        assertThat(config.mix().pick(new Random(1))).isEqualTo(TrafficMix.Action.EDIT);
+        assertThat(config.thresholds()).containsEntry("maxP99Ms", 500.0).containsEntry("maxP99Ms.get", 20.0)
+                .containsEntry("maxErrorRate", 0.0);
+    }
+
+    @Test
+    public void parse_UnknownOption_ThrowsException() {
+        assertThatThrownBy(() -> LoadTestConfig.parse(new String[] { "--users=5" }))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("users");
+        assertThatThrownBy(() -> LoadTestConfig.parse(new String[] { "--mix=browse:5" }))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("browse");
+    }
+
+    @Test
+    public void violations_ReportsExceededThresholdsOnly() {
+        RequestStats get = new RequestStats();
+        for (int i = 1; i <= 100; i++) {
+            get.latencies.record(i * 1000L);
+        }
+        get.shed = 2;
+        LoadReport report = new LoadReport(List.of(Map.of("get", get)), Duration.ofSeconds(10), 100);
+
+        assertThat(report.throughput()).isEqualTo(10.0);
+        assertThat(report.violations(Map.of("maxP50Ms.get", 60.0, "minThroughput", 5.0))).isEmpty();
+        assertThat(report.violations(Map.of("maxP99Ms", 50.0, "maxErrorRate", 0.01)))
+                .hasSize(2).anyMatch(violation -> violation.startsWith("error rate"));
+    }
+}
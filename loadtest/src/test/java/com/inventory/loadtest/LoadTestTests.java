@@ -0,0 +1,60 @@
+package com.inventory.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class LoadTestTests {
+    private final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+    @Test
+    public void shutdown_TasksDoneInTime_Finished() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        pool.execute(() -> { });
+
+        assertThat(LoadTest.shutdown(pool, Duration.ofSeconds(5), Duration.ofSeconds(1), "users", out))
+                .isEqualTo(LoadTest.Shutdown.FINISHED);
+    }
+
+    @Test
+    public void shutdown_TaskOverruns_InterruptsItAndWaitsForIt() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        AtomicBoolean returned = new AtomicBoolean();
+        pool.execute(() -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            returned.set(true);
+        });
+
+        assertThat(LoadTest.shutdown(pool, Duration.ofMillis(50), Duration.ofSeconds(5), "users", out))
+                .isEqualTo(LoadTest.Shutdown.INTERRUPTED);
+        assertThat(returned).isTrue();
+        assertThat(pool.isTerminated()).isTrue();
+    }
+
+    @Test
+    public void shutdown_TaskIgnoresInterrupt_Stuck() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.execute(() -> {
+            while (release.getCount() > 0) {
+                Thread.onSpinWait();
+            }
+        });
+
+        assertThat(LoadTest.shutdown(pool, Duration.ofMillis(20), Duration.ofMillis(20), "users", out))
+                .isEqualTo(LoadTest.Shutdown.STUCK);
+        release.countDown();
+    }
+}